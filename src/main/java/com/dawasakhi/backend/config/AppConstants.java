@@ -37,6 +37,9 @@ public class AppConstants {
     public static final String ACCOUNT_SUSPENDED = "SUSPENDED";
     public static final String ACCOUNT_DELETED = "DELETED";
     
+    // Device used for sessions when the client does not send a device id
+    public static final String DEFAULT_DEVICE_ID = "default";
+    
     // OTP Types
     public static final String OTP_REGISTRATION = "REGISTRATION";
     public static final String OTP_LOGIN = "LOGIN";
@@ -79,9 +82,20 @@ public class AppConstants {
     // Cache Keys
     public static final String CACHE_USER_PROFILE = "user:profile:";
     public static final String CACHE_MEDICINE_DETAILS = "medicine:details:";
+    public static final String CACHE_MEDICINE_VERSION = "medicine:version:";
     public static final String CACHE_SEARCH_RESULTS = "search:results:";
     public static final String CACHE_OTP = "otp:";
     public static final String CACHE_TOKEN_BLACKLIST = "blacklist:";
+    public static final String SMS_DEAD_LETTER = "sms:dead-letter";
+    public static final String CACHE_REFRESH_SESSION = "session:";
+    public static final String CACHE_ORDER_IDEMPOTENCY = "idempotency:order:";
+    public static final String SEARCH_TRENDING = "search:trending:";
+    public static final String CACHE_RECENT_SEARCHES = "search:recent:";
+    public static final String RATE_LIMIT = "rate-limit:";
+    
+    // Pub/Sub Channels
+    public static final String CHANNEL_MEDICINE_INVALIDATION = "channel:medicine:invalidate";
+    public static final String CHANNEL_TOKEN_BLACKLIST = "channel:token:blacklist";
     
     // Cache TTL (in seconds)
     public static final long CACHE_TTL_SHORT = 300L;     // 5 minutes
@@ -93,6 +107,10 @@ public class AppConstants {
     public static final int DEFAULT_PAGE_SIZE = 20;
     public static final int MAX_PAGE_SIZE = 100;
     
+    // Entity ids: ids handed out per sequence call. Must equal the sequences' INCREMENT BY
+    // (db/id-sequences.sql) and matches hibernate.jdbc.batch_size
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     // API Versions
     public static final String API_V1 = "/api/v1";
     
@@ -1,7 +1,9 @@
 package com.dawasakhi.backend.config;
 
+import com.dawasakhi.backend.util.OrderNumberGenerator;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -13,6 +15,8 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class BeanConfig {
 
+    // Reflection-based fallback for ad-hoc mappings; response hot paths use the generated
+    // mappers in the mapper package
     @Bean
     public ModelMapper modelMapper() {
         ModelMapper modelMapper = new ModelMapper();
@@ -23,6 +27,22 @@ public class BeanConfig {
         return modelMapper;
     }
 
+    // Order numbers are assigned inside the Order entity, so this node's generator is also installed
+    // as the shared one. Two instances with the same node id hand out the same numbers, so the id must
+    // be set explicitly; only where derive-node-id is on (development) does a missing one fall back to
+    // a host name hash, which can collide.
+    @Bean
+    public OrderNumberGenerator orderNumberGenerator(@Value("${app.order-number.node-id:-1}") int nodeId,
+                                                     @Value("${app.order-number.derive-node-id:false}") boolean deriveNodeId) {
+        if (nodeId < 0 && !deriveNodeId) {
+            throw new IllegalStateException("app.order-number.node-id (ORDER_NUMBER_NODE_ID) must be set to a value from 0 to "
+                + OrderNumberGenerator.MAX_NODE_ID + " that no other running instance uses");
+        }
+        OrderNumberGenerator generator = new OrderNumberGenerator(nodeId >= 0 ? nodeId : OrderNumberGenerator.hostNodeId());
+        OrderNumberGenerator.setShared(generator);
+        return generator;
+    }
+
     @Bean
     public RestTemplate restTemplate() {
         return new RestTemplate();
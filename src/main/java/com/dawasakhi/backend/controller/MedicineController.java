@@ -1,20 +1,36 @@
 package com.dawasakhi.backend.controller;
 
 import com.dawasakhi.backend.dto.response.ApiResponse;
+import com.dawasakhi.backend.dto.response.CursorPage;
+import com.dawasakhi.backend.dto.response.MedicineCard;
+import com.dawasakhi.backend.dto.response.MedicineFacets;
+import com.dawasakhi.backend.dto.response.MedicineImportStatus;
+import com.dawasakhi.backend.dto.response.MedicineSuggestion;
+import com.dawasakhi.backend.dto.response.RecentSearches;
+import com.dawasakhi.backend.dto.response.TrendingSearchTerm;
 import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.service.MedicineImportService;
 import com.dawasakhi.backend.service.MedicineService;
+import com.dawasakhi.backend.service.MedicineSuggestionService;
+import com.dawasakhi.backend.service.RecentSearchService;
+import com.dawasakhi.backend.service.SearchTrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -23,30 +39,100 @@ import java.util.List;
 public class MedicineController {
 
     private static final Logger logger = LoggerFactory.getLogger(MedicineController.class);
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
 
     @Autowired
     private MedicineService medicineService;
 
+    @Autowired
+    private MedicineSuggestionService medicineSuggestionService;
+
+    @Autowired
+    private MedicineImportService medicineImportService;
+
+    @Autowired
+    private SearchTrendingService searchTrendingService;
+
+    @Autowired
+    private RecentSearchService recentSearchService;
+
     @GetMapping("/search")
-    @Operation(summary = "Search Medicines", description = "Search medicines by name or composition")
-    public ResponseEntity<ApiResponse<Page<Medicine>>> searchMedicines(
+    @Operation(summary = "Search Medicines", description = "Search medicines by name or composition, ranked by relevance by default")
+    public ResponseEntity<ApiResponse<Page<MedicineCard>>> searchMedicines(
             @RequestParam(required = false) String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "genericName") String sortBy,
+            @RequestParam(defaultValue = "relevance") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir) {
         
-        Page<Medicine> medicines = medicineService.searchMedicines(q, page, size, sortBy, sortDir);
+        Page<MedicineCard> medicines = medicineService.searchMedicines(q, page, size, sortBy, sortDir);
         
         return ResponseEntity.ok(
             ApiResponse.success("Medicines retrieved successfully", medicines)
         );
     }
 
+    @GetMapping("/search/scroll")
+    @Operation(summary = "Scroll Medicines", description = "Search medicines with cursor pagination; pass nextCursor back to get the next slice")
+    public ResponseEntity<ApiResponse<CursorPage<MedicineCard>>> scrollMedicines(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "relevance") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        
+        CursorPage<MedicineCard> medicines = medicineService.scrollMedicines(q, cursor, size, sortBy, sortDir);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Medicines retrieved successfully", medicines)
+        );
+    }
+
+    @GetMapping("/search/trending")
+    @Operation(summary = "Trending Searches", description = "Most searched terms over the last 1h, 24h or 7d, with estimated counts")
+    public ResponseEntity<ApiResponse<List<TrendingSearchTerm>>> getTrendingSearches(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<TrendingSearchTerm> terms = searchTrendingService.getTrendingTerms(
+            SearchTrendingService.Window.fromLabel(window), limit);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Trending searches retrieved successfully", terms)
+        );
+    }
+
+    @GetMapping("/search/recent")
+    @Operation(summary = "Recent Searches", description = "The current user's recent searches, and those containing q as suggestions")
+    public ResponseEntity<ApiResponse<RecentSearches>> getRecentSearches(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        RecentSearches searches = recentSearchService.getRecentSearches(authentication.getName(), q, limit);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Recent searches retrieved successfully", searches)
+        );
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest Medicines", description = "Typeahead suggestions for a medicine name or composition prefix")
+    public ResponseEntity<ApiResponse<List<MedicineSuggestion>>> suggestMedicines(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<MedicineSuggestion> suggestions = medicineSuggestionService.suggest(q, limit);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Suggestions retrieved successfully", suggestions)
+        );
+    }
+
     @GetMapping("/{medicineId}/details")
     @Operation(summary = "Get Medicine Details", description = "Get detailed information about a specific medicine")
     public ResponseEntity<ApiResponse<Medicine>> getMedicineDetails(@PathVariable Long medicineId) {
-        Medicine medicine = medicineService.getMedicineById(medicineId);
+        Medicine medicine = medicineService.getMedicineDetails(medicineId);
         
         return ResponseEntity.ok(
             ApiResponse.success("Medicine details retrieved successfully", medicine)
@@ -55,14 +141,30 @@ public class MedicineController {
 
     @GetMapping("/category/{category}")
     @Operation(summary = "Get Medicines by Category", description = "Get medicines filtered by therapeutic category")
-    public ResponseEntity<ApiResponse<Page<Medicine>>> getMedicinesByCategory(
+    public ResponseEntity<ApiResponse<Page<MedicineCard>>> getMedicinesByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "genericName") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir) {
         
-        Page<Medicine> medicines = medicineService.getMedicinesByCategory(category, page, size, sortBy, sortDir);
+        Page<MedicineCard> medicines = medicineService.getMedicinesByCategory(category, page, size, sortBy, sortDir);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Medicines retrieved successfully", medicines)
+        );
+    }
+
+    @GetMapping("/category/{category}/scroll")
+    @Operation(summary = "Scroll Medicines by Category", description = "Get medicines in a therapeutic category with cursor pagination")
+    public ResponseEntity<ApiResponse<CursorPage<MedicineCard>>> scrollMedicinesByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "genericName") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        
+        CursorPage<MedicineCard> medicines = medicineService.scrollMedicinesByCategory(category, cursor, size, sortBy, sortDir);
         
         return ResponseEntity.ok(
             ApiResponse.success("Medicines retrieved successfully", medicines)
@@ -71,11 +173,11 @@ public class MedicineController {
 
     @GetMapping("/featured")
     @Operation(summary = "Get Featured Medicines", description = "Get featured medicines")
-    public ResponseEntity<ApiResponse<Page<Medicine>>> getFeaturedMedicines(
+    public ResponseEntity<ApiResponse<Page<MedicineCard>>> getFeaturedMedicines(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
-        Page<Medicine> medicines = medicineService.getFeaturedMedicines(page, size);
+        Page<MedicineCard> medicines = medicineService.getFeaturedMedicines(page, size);
         
         return ResponseEntity.ok(
             ApiResponse.success("Featured medicines retrieved successfully", medicines)
@@ -102,6 +204,16 @@ public class MedicineController {
         );
     }
 
+    @GetMapping("/facets")
+    @Operation(summary = "Get Medicine Facets", description = "Get category, form, manufacturer and prescription counts for a search, or for the whole catalogue without q")
+    public ResponseEntity<ApiResponse<MedicineFacets>> getMedicineFacets(@RequestParam(required = false) String q) {
+        MedicineFacets facets = medicineService.getMedicineFacets(q);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Medicine facets retrieved successfully", facets)
+        );
+    }
+
     // Admin endpoints
     @PostMapping("/create")
     @PreAuthorize("hasRole('ADMIN')")
@@ -128,6 +240,20 @@ public class MedicineController {
         );
     }
 
+    @PutMapping("/{medicineId}/stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Adjust Medicine Stock", description = "Add (positive) or remove (negative) stock units (Admin only)")
+    public ResponseEntity<ApiResponse<Integer>> adjustStock(
+            @PathVariable Long medicineId,
+            @RequestParam int adjustment) {
+        
+        Integer stockQuantity = medicineService.adjustStock(medicineId, adjustment);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Medicine stock updated successfully", stockQuantity)
+        );
+    }
+
     @DeleteMapping("/{medicineId}/delete")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete Medicine", description = "Delete/discontinue a medicine (Admin only)")
@@ -139,6 +265,30 @@ public class MedicineController {
         );
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import Medicines", description = "Bulk import a catalogue sent as the request body: CSV with a header row of medicine property names, or NDJSON with one medicine per line (Admin only). Poll the returned job for progress and row errors")
+    public ResponseEntity<ApiResponse<MedicineImportStatus>> importMedicines(HttpServletRequest request) throws IOException {
+        MedicineImportService.Format format = MediaType.parseMediaType(request.getContentType())
+            .isCompatibleWith(TEXT_CSV) ? MedicineImportService.Format.CSV : MedicineImportService.Format.NDJSON;
+        MedicineImportStatus status = medicineImportService.submit(request.getInputStream(), format);
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+            ApiResponse.success("Medicine import queued", status)
+        );
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get Medicine Import Status", description = "Get progress and the row error report of a bulk import (Admin only)")
+    public ResponseEntity<ApiResponse<MedicineImportStatus>> getImportStatus(@PathVariable String jobId) {
+        MedicineImportStatus status = medicineImportService.getStatus(jobId);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Medicine import status retrieved successfully", status)
+        );
+    }
+
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get All Medicines", description = "Get all medicines including inactive ones (Admin only)")
@@ -154,4 +304,20 @@ public class MedicineController {
             ApiResponse.success("All medicines retrieved successfully", medicines)
         );
     }
+
+    @GetMapping("/admin/all/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Scroll All Medicines", description = "Get all medicines including inactive ones with cursor pagination (Admin only)")
+    public ResponseEntity<ApiResponse<CursorPage<Medicine>>> scrollAllMedicines(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        
+        CursorPage<Medicine> medicines = medicineService.scrollAllMedicines(cursor, size, sortBy, sortDir);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("All medicines retrieved successfully", medicines)
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.dawasakhi.backend.controller;
+
+import com.dawasakhi.backend.dto.request.CreateOrderRequest;
+import com.dawasakhi.backend.dto.response.ApiResponse;
+import com.dawasakhi.backend.dto.response.OrderDashboardStats;
+import com.dawasakhi.backend.dto.response.OrderResponse;
+import com.dawasakhi.backend.entity.Order;
+import com.dawasakhi.backend.service.OrderExportService;
+import com.dawasakhi.backend.service.OrderService;
+import com.dawasakhi.backend.service.OrderStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/orders")
+@Tag(name = "Orders", description = "Order placement, history, export and statistics APIs")
+public class OrderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @PostMapping
+    @Operation(summary = "Place Order",
+               description = "Place an order for the current user. A retry sent with the same Idempotency-Key returns the original order")
+    public ResponseEntity<ApiResponse<OrderResponse>> placeOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        OrderResponse order = orderService.placeOrder(authentication.getName(), idempotencyKey, request);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+            ApiResponse.success("Order placed successfully", order)
+        );
+    }
+
+    @GetMapping
+    @Operation(summary = "Get Order History", description = "Get the current user's orders, newest first")
+    public ResponseEntity<ApiResponse<Page<OrderResponse>>> getOrderHistory(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Page<OrderResponse> orders = orderService.getOrderHistory(authentication.getName(), page, size);
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Orders retrieved successfully", orders)
+        );
+    }
+
+    // Admin endpoints
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export Orders",
+               description = "Stream orders created between two dates (inclusive) as CSV or NDJSON, optionally filtered by status (Admin only)")
+    public void exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) List<Order.OrderStatus> status,
+            @RequestParam(defaultValue = "CSV") OrderExportService.Format format,
+            HttpServletResponse response) throws IOException {
+
+        LocalDateTime from = fromDate.atStartOfDay();
+        LocalDateTime to = toDate.plusDays(1).atStartOfDay();
+        orderExportService.validateRange(from, to);
+
+        // Written synchronously: an async body would be cut off by the servlet async timeout on large exports
+        boolean csv = format == OrderExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders-" + fromDate + "-" + toDate
+            + (csv ? ".csv" : ".ndjson") + "\"");
+        orderExportService.exportOrders(from, to, status, format, response.getOutputStream());
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get Order Statistics",
+               description = "Dashboard totals, breakdowns and a daily series for the last given days, from rollups refreshed every minute (Admin only)")
+    public ResponseEntity<ApiResponse<OrderDashboardStats>> getOrderStats(
+            @RequestParam(defaultValue = "30") int days) {
+
+        OrderDashboardStats stats = orderStatsService.getDashboard(days);
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Order statistics retrieved successfully", stats)
+        );
+    }
+
+    @GetMapping("/stats/hourly")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get Hourly Order Statistics", description = "Orders, deliveries and revenue per hour of one day (Admin only)")
+    public ResponseEntity<ApiResponse<List<OrderDashboardStats.PeriodStats>>> getHourlyOrderStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        List<OrderDashboardStats.PeriodStats> stats = orderStatsService.getHourlyStats(date);
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Hourly order statistics retrieved successfully", stats)
+        );
+    }
+
+    @PostMapping("/stats/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild Order Statistics", description = "Recompute the statistics rollups from all orders (Admin only)")
+    public ResponseEntity<ApiResponse<Long>> backfillOrderStats() {
+        long buckets = orderStatsService.backfill();
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Order statistics rebuilt successfully", buckets)
+        );
+    }
+}
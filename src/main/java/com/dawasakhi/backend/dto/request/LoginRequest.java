@@ -15,6 +15,10 @@ public class LoginRequest {
     @Pattern(regexp = "^\\d{6}$", message = "OTP must contain only digits")
     private String otp;
 
+    // Optional; each device keeps its own refresh-token session
+    @Pattern(regexp = "^[A-Za-z0-9._-]{1,64}$", message = "Device id must be 1-64 letters, digits, '.', '_' or '-'")
+    private String deviceId;
+
     public LoginRequest() {
     }
 
@@ -39,6 +43,14 @@ public class LoginRequest {
         this.otp = otp;
     }
 
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
     @Override
     public String toString() {
         return "LoginRequest{" +
@@ -14,6 +14,10 @@ public class PasswordLoginRequest {
     @Size(min = 6, max = 50, message = "Password must be between 6 and 50 characters")
     private String password;
 
+    // Optional; each device keeps its own refresh-token session
+    @Pattern(regexp = "^[A-Za-z0-9._-]{1,64}$", message = "Device id must be 1-64 letters, digits, '.', '_' or '-'")
+    private String deviceId;
+
     public PasswordLoginRequest() {
     }
 
@@ -38,6 +42,14 @@ public class PasswordLoginRequest {
         this.password = password;
     }
 
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
     // Helper methods to determine identifier type
     public boolean isEmail() {
         return identifier != null && identifier.contains("@");
@@ -0,0 +1,47 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// Slice of a keyset-paginated listing. There is no total count; pass nextCursor back to get the
+// following slice while hasNext is true.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+
+    @JsonProperty("content")
+    private final List<T> content;
+
+    @JsonProperty("size")
+    private final int size;
+
+    @JsonProperty("hasNext")
+    private final boolean hasNext;
+
+    @JsonProperty("nextCursor")
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,133 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.dawasakhi.backend.entity.Medicine;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+// Listing row for search, category and featured results. Only the columns a medicine card shows
+// are selected; the full entity stays on /medicines/{id}/details.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MedicineCard {
+
+    // Medicine properties in constructor order, for JPQL constructor expressions and criteria selections
+    public static final List<String> PROPERTIES = List.of(
+        "medicineId", "genericName", "brandName", "strength", "medicineForm",
+        "mrp", "sellingPrice", "discountPercentage", "prescriptionRequired", "imageUrls");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @JsonProperty("medicineId")
+    private final Long medicineId;
+
+    @JsonProperty("genericName")
+    private final String genericName;
+
+    @JsonProperty("brandName")
+    private final String brandName;
+
+    @JsonProperty("strength")
+    private final String strength;
+
+    @JsonProperty("medicineForm")
+    private final Medicine.MedicineForm medicineForm;
+
+    @JsonProperty("mrp")
+    private final BigDecimal mrp;
+
+    @JsonProperty("sellingPrice")
+    private final BigDecimal sellingPrice;
+
+    @JsonProperty("discountPercentage")
+    private final BigDecimal discountPercentage;
+
+    @JsonProperty("prescriptionRequired")
+    private final Boolean prescriptionRequired;
+
+    @JsonProperty("imageUrl")
+    private final String imageUrl;
+
+    public MedicineCard(Long medicineId, String genericName, String brandName, String strength,
+                        Medicine.MedicineForm medicineForm, BigDecimal mrp, BigDecimal sellingPrice,
+                        BigDecimal discountPercentage, Boolean prescriptionRequired, String imageUrls) {
+        this.medicineId = medicineId;
+        this.genericName = genericName;
+        this.brandName = brandName;
+        this.strength = strength;
+        this.medicineForm = medicineForm;
+        this.mrp = mrp;
+        this.sellingPrice = sellingPrice;
+        this.discountPercentage = discountPercentage;
+        this.prescriptionRequired = prescriptionRequired;
+        this.imageUrl = firstImage(imageUrls);
+    }
+
+    // Row selected in PROPERTIES order
+    public static MedicineCard fromRow(Object[] row) {
+        return new MedicineCard((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+            (Medicine.MedicineForm) row[4], (BigDecimal) row[5], (BigDecimal) row[6], (BigDecimal) row[7],
+            (Boolean) row[8], (String) row[9]);
+    }
+
+    // imageUrls is a JSON array stored as text; a plain URL is accepted as well
+    private static String firstImage(String imageUrls) {
+        if (imageUrls == null || imageUrls.isBlank()) {
+            return null;
+        }
+        String value = imageUrls.trim();
+        if (!value.startsWith("[")) {
+            return value;
+        }
+        try {
+            JsonNode first = MAPPER.readTree(value).path(0);
+            return first.isTextual() ? first.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public String getGenericName() {
+        return genericName;
+    }
+
+    public String getBrandName() {
+        return brandName;
+    }
+
+    public String getStrength() {
+        return strength;
+    }
+
+    public Medicine.MedicineForm getMedicineForm() {
+        return medicineForm;
+    }
+
+    public BigDecimal getMrp() {
+        return mrp;
+    }
+
+    public BigDecimal getSellingPrice() {
+        return sellingPrice;
+    }
+
+    public BigDecimal getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public Boolean getPrescriptionRequired() {
+        return prescriptionRequired;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
@@ -0,0 +1,85 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// Filter sidebar counts for a set of active medicines, each facet ordered by count descending
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MedicineFacets {
+
+    @JsonProperty("total")
+    private final long total;
+
+    @JsonProperty("categories")
+    private final List<FacetCount> categories;
+
+    @JsonProperty("forms")
+    private final List<FacetCount> forms;
+
+    @JsonProperty("manufacturers")
+    private final List<FacetCount> manufacturers;
+
+    @JsonProperty("prescriptionRequired")
+    private final long prescriptionRequired;
+
+    @JsonProperty("prescriptionNotRequired")
+    private final long prescriptionNotRequired;
+
+    public MedicineFacets(long total, List<FacetCount> categories, List<FacetCount> forms,
+                          List<FacetCount> manufacturers, long prescriptionRequired, long prescriptionNotRequired) {
+        this.total = total;
+        this.categories = categories;
+        this.forms = forms;
+        this.manufacturers = manufacturers;
+        this.prescriptionRequired = prescriptionRequired;
+        this.prescriptionNotRequired = prescriptionNotRequired;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public List<FacetCount> getCategories() {
+        return categories;
+    }
+
+    public List<FacetCount> getForms() {
+        return forms;
+    }
+
+    public List<FacetCount> getManufacturers() {
+        return manufacturers;
+    }
+
+    public long getPrescriptionRequired() {
+        return prescriptionRequired;
+    }
+
+    public long getPrescriptionNotRequired() {
+        return prescriptionNotRequired;
+    }
+
+    public static class FacetCount {
+
+        @JsonProperty("value")
+        private final String value;
+
+        @JsonProperty("count")
+        private final long count;
+
+        public FacetCount(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
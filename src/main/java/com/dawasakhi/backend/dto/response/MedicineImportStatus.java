@@ -0,0 +1,208 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Progress and row report of a bulk medicine import job
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MedicineImportStatus {
+
+    @JsonProperty("jobId")
+    private String jobId;
+
+    @JsonProperty("format")
+    private String format;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("sizeBytes")
+    private long sizeBytes;
+
+    @JsonProperty("bytesRead")
+    private long bytesRead;
+
+    @JsonProperty("rowsProcessed")
+    private long rowsProcessed;
+
+    @JsonProperty("imported")
+    private long imported;
+
+    @JsonProperty("duplicates")
+    private long duplicates;
+
+    @JsonProperty("failed")
+    private long failed;
+
+    // Rejected and duplicate rows, capped; errorsTruncated is set when more were left out
+    @JsonProperty("errors")
+    private List<RowError> errors;
+
+    @JsonProperty("errorsTruncated")
+    private boolean errorsTruncated;
+
+    @JsonProperty("failureMessage")
+    private String failureMessage;
+
+    @JsonProperty("createdAt")
+    private LocalDateTime createdAt;
+
+    @JsonProperty("startedAt")
+    private LocalDateTime startedAt;
+
+    @JsonProperty("finishedAt")
+    private LocalDateTime finishedAt;
+
+    public MedicineImportStatus() {}
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    @JsonProperty("progressPercent")
+    public int getProgressPercent() {
+        return sizeBytes > 0 ? (int) Math.min(100, bytesRead * 100 / sizeBytes) : 100;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public void setFailureMessage(String failureMessage) {
+        this.failureMessage = failureMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public static class RowError {
+
+        // 1-based data row: CSV header and blank NDJSON lines are not counted
+        @JsonProperty("row")
+        private final long row;
+
+        @JsonProperty("message")
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
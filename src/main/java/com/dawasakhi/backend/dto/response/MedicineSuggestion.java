@@ -0,0 +1,51 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MedicineSuggestion {
+
+    @JsonProperty("medicineId")
+    private final Long medicineId;
+
+    @JsonProperty("genericName")
+    private final String genericName;
+
+    @JsonProperty("brandName")
+    private final String brandName;
+
+    @JsonProperty("strength")
+    private final String strength;
+
+    @JsonProperty("featured")
+    private final boolean featured;
+
+    public MedicineSuggestion(Long medicineId, String genericName, String brandName, String strength, boolean featured) {
+        this.medicineId = medicineId;
+        this.genericName = genericName;
+        this.brandName = brandName;
+        this.strength = strength;
+        this.featured = featured;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public String getGenericName() {
+        return genericName;
+    }
+
+    public String getBrandName() {
+        return brandName;
+    }
+
+    public String getStrength() {
+        return strength;
+    }
+
+    public boolean isFeatured() {
+        return featured;
+    }
+}
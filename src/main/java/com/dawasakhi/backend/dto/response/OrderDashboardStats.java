@@ -0,0 +1,152 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Admin dashboard figures, read from the order statistics rollups. Revenue counts delivered orders
+// with completed payment; average order value and delivery type figures count delivered orders.
+public class OrderDashboardStats {
+
+    @JsonProperty("totalOrders")
+    private final long totalOrders;
+
+    @JsonProperty("deliveredOrders")
+    private final long deliveredOrders;
+
+    @JsonProperty("totalRevenue")
+    private final BigDecimal totalRevenue;
+
+    @JsonProperty("averageOrderValue")
+    private final BigDecimal averageOrderValue;
+
+    @JsonProperty("ordersByStatus")
+    private final Map<String, Long> ordersByStatus;
+
+    @JsonProperty("completedPaymentsByMethod")
+    private final Map<String, Long> completedPaymentsByMethod;
+
+    @JsonProperty("deliveryTypes")
+    private final List<DeliveryTypeStats> deliveryTypes;
+
+    @JsonProperty("daily")
+    private final List<PeriodStats> daily;
+
+    public OrderDashboardStats(long totalOrders, long deliveredOrders, BigDecimal totalRevenue,
+                               BigDecimal averageOrderValue, Map<String, Long> ordersByStatus,
+                               Map<String, Long> completedPaymentsByMethod, List<DeliveryTypeStats> deliveryTypes,
+                               List<PeriodStats> daily) {
+        this.totalOrders = totalOrders;
+        this.deliveredOrders = deliveredOrders;
+        this.totalRevenue = totalRevenue;
+        this.averageOrderValue = averageOrderValue;
+        this.ordersByStatus = ordersByStatus;
+        this.completedPaymentsByMethod = completedPaymentsByMethod;
+        this.deliveryTypes = deliveryTypes;
+        this.daily = daily;
+    }
+
+    public long getTotalOrders() {
+        return totalOrders;
+    }
+
+    public long getDeliveredOrders() {
+        return deliveredOrders;
+    }
+
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public BigDecimal getAverageOrderValue() {
+        return averageOrderValue;
+    }
+
+    public Map<String, Long> getOrdersByStatus() {
+        return ordersByStatus;
+    }
+
+    public Map<String, Long> getCompletedPaymentsByMethod() {
+        return completedPaymentsByMethod;
+    }
+
+    public List<DeliveryTypeStats> getDeliveryTypes() {
+        return deliveryTypes;
+    }
+
+    public List<PeriodStats> getDaily() {
+        return daily;
+    }
+
+    // One day or one hour, starting at periodStart
+    public static class PeriodStats {
+
+        @JsonProperty("periodStart")
+        private final LocalDateTime periodStart;
+
+        @JsonProperty("orders")
+        private final long orders;
+
+        @JsonProperty("deliveredOrders")
+        private final long deliveredOrders;
+
+        @JsonProperty("revenue")
+        private final BigDecimal revenue;
+
+        public PeriodStats(LocalDateTime periodStart, long orders, long deliveredOrders, BigDecimal revenue) {
+            this.periodStart = periodStart;
+            this.orders = orders;
+            this.deliveredOrders = deliveredOrders;
+            this.revenue = revenue;
+        }
+
+        public LocalDateTime getPeriodStart() {
+            return periodStart;
+        }
+
+        public long getOrders() {
+            return orders;
+        }
+
+        public long getDeliveredOrders() {
+            return deliveredOrders;
+        }
+
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+    }
+
+    public static class DeliveryTypeStats {
+
+        @JsonProperty("deliveryType")
+        private final String deliveryType;
+
+        @JsonProperty("deliveredOrders")
+        private final long deliveredOrders;
+
+        @JsonProperty("averageOrderValue")
+        private final BigDecimal averageOrderValue;
+
+        public DeliveryTypeStats(String deliveryType, long deliveredOrders, BigDecimal averageOrderValue) {
+            this.deliveryType = deliveryType;
+            this.deliveredOrders = deliveredOrders;
+            this.averageOrderValue = averageOrderValue;
+        }
+
+        public String getDeliveryType() {
+            return deliveryType;
+        }
+
+        public long getDeliveredOrders() {
+            return deliveredOrders;
+        }
+
+        public BigDecimal getAverageOrderValue() {
+            return averageOrderValue;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.dawasakhi.backend.entity.Order;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One line of the admin order export, selected with a JPQL constructor expression so exported rows
+// never enter the persistence context. Property order is the CSV column order.
+@JsonPropertyOrder({
+    "orderId", "orderNumber", "createdAt", "orderStatus", "paymentStatus", "paymentMethod", "deliveryType",
+    "customerPhone", "customerName", "city", "state", "postalCode",
+    "subtotal", "deliveryCharges", "serviceCharges", "discountAmount", "taxAmount", "totalAmount"
+})
+public class OrderExportRow {
+
+    private final Long orderId;
+    private final String orderNumber;
+    private final LocalDateTime createdAt;
+    private final Order.OrderStatus orderStatus;
+    private final Order.PaymentStatus paymentStatus;
+    private final Order.PaymentMethod paymentMethod;
+    private final Order.DeliveryType deliveryType;
+    private final String customerPhone;
+    private final String customerName;
+    private final String city;
+    private final String state;
+    private final String postalCode;
+    private final BigDecimal subtotal;
+    private final BigDecimal deliveryCharges;
+    private final BigDecimal serviceCharges;
+    private final BigDecimal discountAmount;
+    private final BigDecimal taxAmount;
+    private final BigDecimal totalAmount;
+
+    public OrderExportRow(Long orderId, String orderNumber, LocalDateTime createdAt, Order.OrderStatus orderStatus,
+                          Order.PaymentStatus paymentStatus, Order.PaymentMethod paymentMethod,
+                          Order.DeliveryType deliveryType, String customerPhone, String customerName,
+                          String city, String state, String postalCode, BigDecimal subtotal,
+                          BigDecimal deliveryCharges, BigDecimal serviceCharges, BigDecimal discountAmount,
+                          BigDecimal taxAmount, BigDecimal totalAmount) {
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.createdAt = createdAt;
+        this.orderStatus = orderStatus;
+        this.paymentStatus = paymentStatus;
+        this.paymentMethod = paymentMethod;
+        this.deliveryType = deliveryType;
+        this.customerPhone = customerPhone;
+        this.customerName = customerName;
+        this.city = city;
+        this.state = state;
+        this.postalCode = postalCode;
+        this.subtotal = subtotal;
+        this.deliveryCharges = deliveryCharges;
+        this.serviceCharges = serviceCharges;
+        this.discountAmount = discountAmount;
+        this.taxAmount = taxAmount;
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Order.OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public Order.PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public Order.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public Order.DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public BigDecimal getDeliveryCharges() {
+        return deliveryCharges;
+    }
+
+    public BigDecimal getServiceCharges() {
+        return serviceCharges;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
@@ -0,0 +1,29 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// A user's own searches, most relevant first: recent favours terms searched often and lately,
+// suggestions are the ones containing the typed query
+public class RecentSearches {
+
+    @JsonProperty("recent")
+    private final List<String> recent;
+
+    @JsonProperty("suggestions")
+    private final List<String> suggestions;
+
+    public RecentSearches(List<String> recent, List<String> suggestions) {
+        this.recent = recent;
+        this.suggestions = suggestions;
+    }
+
+    public List<String> getRecent() {
+        return recent;
+    }
+
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
+}
@@ -0,0 +1,26 @@
+package com.dawasakhi.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// searchCount is estimated from the trending sketches and may slightly overcount
+public class TrendingSearchTerm {
+
+    @JsonProperty("term")
+    private final String term;
+
+    @JsonProperty("searchCount")
+    private final long searchCount;
+
+    public TrendingSearchTerm(String term, long searchCount) {
+        this.term = term;
+        this.searchCount = searchCount;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public long getSearchCount() {
+        return searchCount;
+    }
+}
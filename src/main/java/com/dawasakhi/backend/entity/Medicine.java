@@ -1,5 +1,6 @@
 package com.dawasakhi.backend.entity;
 
+import com.dawasakhi.backend.config.AppConstants;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -20,12 +21,17 @@ import java.util.List;
     @Index(name = "idx_medicine_category", columnList = "therapeuticCategory"),
     @Index(name = "idx_medicine_prescription", columnList = "prescriptionRequired"),
     @Index(name = "idx_medicine_status", columnList = "status"),
-    @Index(name = "idx_medicine_featured", columnList = "isFeatured")
+    @Index(name = "idx_medicine_featured", columnList = "isFeatured"),
+    // Keyset pagination: default orderings of the scroll endpoints with the medicineId tie-breaker
+    @Index(name = "idx_medicine_category_name_id", columnList = "therapeuticCategory, genericName, medicineId"),
+    @Index(name = "idx_medicine_featured_created_id", columnList = "isFeatured, createdAt, medicineId"),
+    @Index(name = "idx_medicine_created_id", columnList = "createdAt, medicineId")
 })
 public class Medicine extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medicines_medicine_id_seq")
+    @SequenceGenerator(name = "medicines_medicine_id_seq", sequenceName = "medicines_medicine_id_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     @Column(name = "medicine_id")
     private Long medicineId;
 
@@ -47,6 +53,7 @@ public class Medicine extends BaseEntity {
     @Column(name = "composition", nullable = false, columnDefinition = "TEXT")
     private String composition;
 
+    @NotNull(message = "Medicine form is required")
     @Enumerated(EnumType.STRING)
     @Column(name = "medicine_form", nullable = false)
     private MedicineForm medicineForm;
@@ -143,6 +150,13 @@ public class Medicine extends BaseEntity {
     @Column(name = "max_order_quantity", nullable = false)
     private Integer maxOrderQuantity = 10;
 
+    // Only changed by the conditional updates in MedicineRepository, never by saving the entity,
+    // so editing a medicine cannot overwrite reservations made since it was loaded
+    @PositiveOrZero(message = "Stock quantity must be positive")
+    @Column(name = "stock_quantity", nullable = false, updatable = false,
+            columnDefinition = "integer default 0 check (stock_quantity >= 0)")
+    private Integer stockQuantity = 0;
+
     @Column(name = "expiry_date")
     private LocalDate expiryDate;
 
@@ -188,7 +202,7 @@ public class Medicine extends BaseEntity {
     // Business Logic
     @PrePersist
     @PreUpdate
-    private void calculateSellingPrice() {
+    public void calculateSellingPrice() {
         if (mrp != null && discountPercentage != null) {
             BigDecimal discountAmount = mrp.multiply(discountPercentage).divide(BigDecimal.valueOf(100));
             this.sellingPrice = mrp.subtract(discountAmount);
@@ -454,6 +468,14 @@ public class Medicine extends BaseEntity {
         this.maxOrderQuantity = maxOrderQuantity;
     }
 
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+
     public LocalDate getExpiryDate() {
         return expiryDate;
     }
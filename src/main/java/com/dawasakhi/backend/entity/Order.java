@@ -1,11 +1,14 @@
 package com.dawasakhi.backend.entity;
 
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.util.OrderNumberGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,14 +17,22 @@ import java.util.List;
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_number", columnList = "orderNumber"),
     @Index(name = "idx_order_customer", columnList = "customer_id"),
+    @Index(name = "idx_order_customer_created_id", columnList = "customer_id, createdAt, orderId"),
     @Index(name = "idx_order_status", columnList = "orderStatus"),
     @Index(name = "idx_order_payment_status", columnList = "paymentStatus"),
     @Index(name = "idx_order_created", columnList = "createdAt")
+}, uniqueConstraints = {
+    // A repeated Idempotency-Key cannot create a second order even when Redis has lost it (OrderService)
+    @UniqueConstraint(name = "uk_order_customer_idempotency_key", columnNames = {"customer_id", "idempotency_key"})
 })
 public class Order extends BaseEntity {
 
+    // The delivery OTP is a secret handed over at the door, so it must not be predictable
+    private static final SecureRandom DELIVERY_OTP_RANDOM = new SecureRandom();
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_order_id_seq")
+    @SequenceGenerator(name = "orders_order_id_seq", sequenceName = "orders_order_id_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     @Column(name = "order_id")
     private Long orderId;
 
@@ -32,6 +43,13 @@ public class Order extends BaseEntity {
     @JoinColumn(name = "customer_id", nullable = false)
     private User customer;
 
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    // Hash of the request placed under idempotencyKey, so reusing the key for another order is refused
+    @Column(name = "idempotency_fingerprint", length = 64)
+    private String idempotencyFingerprint;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "delivery_address_id", nullable = false)
     private UserAddress deliveryAddress;
@@ -166,10 +184,9 @@ public class Order extends BaseEntity {
     }
 
     // Constructors
+    // The order number and delivery OTP are assigned on insert, so loading an order draws from neither
     public Order() {
         super();
-        generateOrderNumber();
-        generateDeliveryOtp();
     }
 
     public Order(User customer, UserAddress deliveryAddress, 
@@ -194,13 +211,11 @@ public class Order extends BaseEntity {
     }
 
     private void generateOrderNumber() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String random = String.format("%03d", (int)(Math.random() * 1000));
-        this.orderNumber = "DS" + timestamp.substring(timestamp.length() - 6) + random;
+        this.orderNumber = OrderNumberGenerator.shared().next();
     }
 
     private void generateDeliveryOtp() {
-        this.deliveryOtp = String.format("%06d", (int)(Math.random() * 1000000));
+        this.deliveryOtp = String.format("%06d", DELIVERY_OTP_RANDOM.nextInt(1000000));
     }
 
     // Getters and Setters
@@ -228,6 +243,22 @@ public class Order extends BaseEntity {
         this.customer = customer;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyFingerprint() {
+        return idempotencyFingerprint;
+    }
+
+    public void setIdempotencyFingerprint(String idempotencyFingerprint) {
+        this.idempotencyFingerprint = idempotencyFingerprint;
+    }
+
     public UserAddress getDeliveryAddress() {
         return deliveryAddress;
     }
@@ -1,5 +1,6 @@
 package com.dawasakhi.backend.entity;
 
+import com.dawasakhi.backend.config.AppConstants;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
@@ -18,7 +19,8 @@ import java.time.LocalDate;
 public class OrderItem extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_order_item_id_seq")
+    @SequenceGenerator(name = "order_items_order_item_id_seq", sequenceName = "order_items_order_item_id_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     @Column(name = "order_item_id")
     private Long orderItemId;
 
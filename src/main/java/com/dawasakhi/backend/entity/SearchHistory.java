@@ -1,21 +1,29 @@
 package com.dawasakhi.backend.entity;
 
+import com.dawasakhi.backend.config.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+// Partitioned by month on search_date (db/search-history-partitions.sql); filter on searchDate so
+// queries only read the partitions they need
 @Table(name = "search_history", indexes = {
-    @Index(name = "idx_search_history_user", columnList = "user_id"),
+    @Index(name = "idx_search_history_user_date", columnList = "user_id, search_date"),
     @Index(name = "idx_search_history_term", columnList = "search_term"),
-    @Index(name = "idx_search_history_created", columnList = "created_at")
+    @Index(name = "idx_search_history_date", columnList = "search_date, search_type")
+}, uniqueConstraints = {
+    // One row per user, term and day; repeated searches increment searchCount (SearchHistoryService)
+    @UniqueConstraint(name = "uk_search_history_user_term_date", columnNames = {"user_id", "search_type", "search_term", "search_date"})
 })
 public class SearchHistory extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "search_history_search_id_seq")
+    @SequenceGenerator(name = "search_history_search_id_seq", sequenceName = "search_history_search_id_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     @Column(name = "search_id")
     private Long searchId;
 
@@ -32,6 +40,9 @@ public class SearchHistory extends BaseEntity {
     @Column(name = "search_type", nullable = false)
     private SearchType searchType = SearchType.MEDICINE;
 
+    @Column(name = "search_date", nullable = false)
+    private LocalDate searchDate;
+
     @Column(name = "result_count")
     private Integer resultCount = 0;
 
@@ -93,6 +104,14 @@ public class SearchHistory extends BaseEntity {
         this.searchType = searchType;
     }
 
+    public LocalDate getSearchDate() {
+        return searchDate;
+    }
+
+    public void setSearchDate(LocalDate searchDate) {
+        this.searchDate = searchDate;
+    }
+
     public Integer getResultCount() {
         return resultCount;
     }
@@ -131,6 +150,7 @@ public class SearchHistory extends BaseEntity {
                 "searchId=" + searchId +
                 ", searchTerm='" + searchTerm + '\'' +
                 ", searchType=" + searchType +
+                ", searchDate=" + searchDate +
                 ", resultCount=" + resultCount +
                 ", searchCount=" + searchCount +
                 '}';
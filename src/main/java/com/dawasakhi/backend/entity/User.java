@@ -1,5 +1,6 @@
 package com.dawasakhi.backend.entity;
 
+import com.dawasakhi.backend.config.AppConstants;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -21,7 +22,8 @@ import java.util.List;
 public class User extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_user_id_seq")
+    @SequenceGenerator(name = "users_user_id_seq", sequenceName = "users_user_id_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     @Column(name = "user_id")
     private Long userId;
 
@@ -85,10 +87,6 @@ public class User extends BaseEntity {
     @Column(name = "password_hash")
     private String passwordHash;
 
-    @JsonIgnore
-    @Column(name = "refresh_token", columnDefinition = "TEXT")
-    private String refreshToken;
-
     // Relationships
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -269,14 +267,6 @@ public class User extends BaseEntity {
         this.passwordHash = passwordHash;
     }
 
-    public String getRefreshToken() {
-        return refreshToken;
-    }
-
-    public void setRefreshToken(String refreshToken) {
-        this.refreshToken = refreshToken;
-    }
-
     public List<UserAddress> getAddresses() {
         return addresses;
     }
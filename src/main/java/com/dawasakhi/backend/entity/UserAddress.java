@@ -1,5 +1,6 @@
 package com.dawasakhi.backend.entity;
 
+import com.dawasakhi.backend.config.AppConstants;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -16,7 +17,8 @@ import java.math.BigDecimal;
 public class UserAddress extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_addresses_address_id_seq")
+    @SequenceGenerator(name = "user_addresses_address_id_seq", sequenceName = "user_addresses_address_id_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     @Column(name = "address_id")
     private Long addressId;
 
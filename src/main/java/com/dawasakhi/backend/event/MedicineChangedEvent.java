@@ -0,0 +1,39 @@
+package com.dawasakhi.backend.event;
+
+import com.dawasakhi.backend.entity.Medicine;
+
+public class MedicineChangedEvent {
+
+    // STOCK: only the stock quantity changed
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED, STOCK
+    }
+
+    private final Medicine medicine;
+    private final ChangeType changeType;
+
+    public MedicineChangedEvent(Medicine medicine, ChangeType changeType) {
+        this.medicine = medicine;
+        this.changeType = changeType;
+    }
+
+    public Medicine getMedicine() {
+        return medicine;
+    }
+
+    public Long getMedicineId() {
+        return medicine.getMedicineId();
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    @Override
+    public String toString() {
+        return "MedicineChangedEvent{" +
+                "medicineId=" + medicine.getMedicineId() +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.dawasakhi.backend.event;
+
+// Published once a bulk import has written medicines with plain JDBC, so in-memory views of the
+// catalogue rebuild instead of waiting for a MedicineChangedEvent per row
+public class MedicinesImportedEvent {
+
+    private final String jobId;
+    private final long importedCount;
+
+    public MedicinesImportedEvent(String jobId, long importedCount) {
+        this.jobId = jobId;
+        this.importedCount = importedCount;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "MedicinesImportedEvent{" +
+                "jobId=" + jobId +
+                ", importedCount=" + importedCount +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.dawasakhi.backend.mapper;
+
+import com.dawasakhi.backend.dto.response.OrderResponse;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.entity.Order;
+import com.dawasakhi.backend.entity.OrderItem;
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.entity.UserAddress;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+// Generated at compile time. Pricing, delivery tracking and timestamps are flat columns on Order
+// that the response groups into nested summaries.
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface OrderMapper {
+
+    @Mapping(target = "pricing", source = "order")
+    @Mapping(target = "deliveryTracking", source = "order")
+    @Mapping(target = "timestamps", source = "order")
+    OrderResponse toResponse(Order order);
+
+    List<OrderResponse> toResponses(List<Order> orders);
+
+    OrderResponse.CustomerSummary toCustomerSummary(User customer);
+
+    OrderResponse.AddressSummary toAddressSummary(UserAddress address);
+
+    OrderResponse.OrderItemResponse toItemResponse(OrderItem item);
+
+    OrderResponse.MedicineSummary toMedicineSummary(Medicine medicine);
+
+    OrderResponse.PricingDetails toPricingDetails(Order order);
+
+    OrderResponse.DeliveryTracking toDeliveryTracking(Order order);
+
+    OrderResponse.OrderTimestamps toTimestamps(Order order);
+}
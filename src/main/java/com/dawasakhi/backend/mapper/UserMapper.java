@@ -0,0 +1,13 @@
+package com.dawasakhi.backend.mapper;
+
+import com.dawasakhi.backend.dto.response.UserResponse;
+import com.dawasakhi.backend.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+// Generated at compile time; a UserResponse field without a matching User property fails the build
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    UserResponse toResponse(User user);
+}
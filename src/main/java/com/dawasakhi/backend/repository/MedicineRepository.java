@@ -1,9 +1,12 @@
 package com.dawasakhi.backend.repository;
 
+import com.dawasakhi.backend.dto.response.MedicineCard;
 import com.dawasakhi.backend.entity.Medicine;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +16,12 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MedicineRepository extends JpaRepository<Medicine, Long> {
+public interface MedicineRepository extends JpaRepository<Medicine, Long>, JpaSpecificationExecutor<Medicine> {
+
+    // Selects only the MedicineCard columns (MedicineCard.PROPERTIES order) instead of whole entities
+    String CARD_SELECT = "SELECT new com.dawasakhi.backend.dto.response.MedicineCard(" +
+           "m.medicineId, m.genericName, m.brandName, m.strength, m.medicineForm, " +
+           "m.mrp, m.sellingPrice, m.discountPercentage, m.prescriptionRequired, m.imageUrls) FROM Medicine m ";
 
     Optional<Medicine> findByMedicineIdAndStatus(Long medicineId, Medicine.MedicineStatus status);
     
@@ -74,19 +82,10 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
                                        @Param("status") Medicine.MedicineStatus status,
                                        Pageable pageable);
     
-    @Query("SELECT DISTINCT m.therapeuticCategory, COUNT(m) as count FROM Medicine m " +
-           "WHERE m.status = :status AND m.therapeuticCategory IS NOT NULL " +
-           "GROUP BY m.therapeuticCategory " +
-           "HAVING COUNT(m) > 0 " +
-           "ORDER BY count DESC")
-    List<Object[]> findCategoriesWithCount(@Param("status") Medicine.MedicineStatus status);
-    
-    @Query("SELECT DISTINCT m.manufacturer, COUNT(m) as count FROM Medicine m " +
-           "WHERE m.status = :status AND m.manufacturer IS NOT NULL " +
-           "GROUP BY m.manufacturer " +
-           "HAVING COUNT(m) > 0 " +
-           "ORDER BY count DESC")
-    List<Object[]> findManufacturersWithCount(@Param("status") Medicine.MedicineStatus status);
+    // One narrow row per medicine for MedicineFacetService; the counts themselves are kept in memory
+    @Query("SELECT m.medicineId, m.therapeuticCategory, m.manufacturer, m.medicineForm, m.prescriptionRequired " +
+           "FROM Medicine m WHERE m.status = :status")
+    List<Object[]> findFacetKeysByStatus(@Param("status") Medicine.MedicineStatus status);
     
     @Query("SELECT COUNT(m) FROM Medicine m WHERE m.status = 'ACTIVE'")
     long countActiveMedicines();
@@ -108,16 +107,54 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
            "LOWER(m.brandName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(m.composition) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     Page<Medicine> searchByNameOrComposition(@Param("searchTerm") String searchTerm, Pageable pageable);
-    
+
     Page<Medicine> findByStatus(Medicine.MedicineStatus status, Pageable pageable);
     
     Page<Medicine> findByTherapeuticCategoryAndStatus(String category, Medicine.MedicineStatus status, Pageable pageable);
     
     Page<Medicine> findByIsFeaturedAndStatus(Boolean featured, Medicine.MedicineStatus status, Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE m.status = :status",
+           countQuery = "SELECT COUNT(m) FROM Medicine m WHERE m.status = :status")
+    Page<MedicineCard> findCardsByStatus(@Param("status") Medicine.MedicineStatus status, Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE m.therapeuticCategory = :category AND m.status = :status",
+           countQuery = "SELECT COUNT(m) FROM Medicine m WHERE m.therapeuticCategory = :category AND m.status = :status")
+    Page<MedicineCard> findCardsByCategoryAndStatus(@Param("category") String category,
+                                                    @Param("status") Medicine.MedicineStatus status,
+                                                    Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE m.isFeatured = :featured AND m.status = :status",
+           countQuery = "SELECT COUNT(m) FROM Medicine m WHERE m.isFeatured = :featured AND m.status = :status")
+    Page<MedicineCard> findCardsByFeaturedAndStatus(@Param("featured") Boolean featured,
+                                                    @Param("status") Medicine.MedicineStatus status,
+                                                    Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE m.status = 'ACTIVE' AND " +
+           "(LOWER(m.genericName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(m.brandName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(m.composition) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
+           countQuery = "SELECT COUNT(m) FROM Medicine m WHERE m.status = 'ACTIVE' AND " +
+           "(LOWER(m.genericName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(m.brandName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(m.composition) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<MedicineCard> searchCardsByNameOrComposition(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    // Stock changes are single conditional updates: no row is read and locked first, and an update that
+    // would take stock below zero matches no row (returns 0) instead of failing
+    @Modifying
+    @Query("UPDATE Medicine m SET m.stockQuantity = m.stockQuantity - :quantity " +
+           "WHERE m.medicineId = :medicineId AND m.stockQuantity >= :quantity")
+    int reserveStock(@Param("medicineId") Long medicineId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Medicine m SET m.stockQuantity = m.stockQuantity + :adjustment " +
+           "WHERE m.medicineId = :medicineId AND m.stockQuantity + :adjustment >= 0")
+    int adjustStock(@Param("medicineId") Long medicineId, @Param("adjustment") int adjustment);
+
+    @Query("SELECT m.stockQuantity FROM Medicine m WHERE m.medicineId = :medicineId")
+    Optional<Integer> findStockQuantity(@Param("medicineId") Long medicineId);
     
-    @Query("SELECT DISTINCT m.therapeuticCategory FROM Medicine m WHERE m.status = 'ACTIVE' AND m.therapeuticCategory IS NOT NULL ORDER BY m.therapeuticCategory")
-    List<String> findDistinctTherapeuticCategories();
-    
-    @Query("SELECT DISTINCT m.manufacturer FROM Medicine m WHERE m.status = 'ACTIVE' AND m.manufacturer IS NOT NULL ORDER BY m.manufacturer")
-    List<String> findDistinctManufacturers();
+    @Query("SELECT oi.medicine.medicineId, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.medicine.medicineId")
+    List<Object[]> findOrderedQuantityByMedicine();
 }
\ No newline at end of file
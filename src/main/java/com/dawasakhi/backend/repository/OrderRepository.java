@@ -1,18 +1,25 @@
 package com.dawasakhi.backend.repository;
 
+import com.dawasakhi.backend.dto.response.OrderExportRow;
 import com.dawasakhi.backend.entity.Order;
 import com.dawasakhi.backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -23,8 +30,23 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByOrderNumberAndCustomerUserId(String orderNumber, Long customerId);
     
+    Optional<Order> findByCustomerUserIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+    
     Page<Order> findByCustomerUserIdOrderByCreatedAtDesc(Long customerId, Pageable pageable);
     
+    // Order history, first step: one page of ids, newest first. Paging the ids rather than the
+    // orders keeps the collection fetch of findWithDetailsByOrderIdIn out of the LIMIT query.
+    @Query(value = "SELECT o.orderId FROM Order o WHERE o.customer.phoneNumber = :phoneNumber " +
+                   "ORDER BY o.createdAt DESC, o.orderId DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customer.phoneNumber = :phoneNumber")
+    Page<Long> findOrderIdsByCustomerPhoneNumber(@Param("phoneNumber") String phoneNumber, Pageable pageable);
+    
+    // Second step: the orders with everything OrderMapper reads, in a single query. The EAGER
+    // substituteMedicine is joined too, otherwise it would be loaded with one query per item.
+    @EntityGraph(attributePaths = {"customer", "deliveryAddress", "items", "items.medicine", "items.substituteMedicine"})
+    @Query("SELECT DISTINCT o FROM Order o WHERE o.orderId IN :orderIds")
+    List<Order> findWithDetailsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
     Page<Order> findByCustomerUserIdAndOrderStatusOrderByCreatedAtDesc(Long customerId, Order.OrderStatus orderStatus, Pageable pageable);
     
     Page<Order> findByOrderStatusOrderByCreatedAtDesc(Order.OrderStatus orderStatus, Pageable pageable);
@@ -47,6 +69,20 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                      @Param("toDate") LocalDateTime toDate, 
                                      Pageable pageable);
     
+    // Admin export: a forward-only cursor over flat rows. Must be consumed inside a transaction, where
+    // the PostgreSQL driver honours the fetch size instead of reading the whole result into memory.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.dawasakhi.backend.dto.response.OrderExportRow(" +
+           "o.orderId, o.orderNumber, o.createdAt, o.orderStatus, o.paymentStatus, o.paymentMethod, o.deliveryType, " +
+           "c.phoneNumber, c.fullName, a.city, a.state, a.postalCode, " +
+           "o.subtotal, o.deliveryCharges, o.serviceCharges, o.discountAmount, o.taxAmount, o.totalAmount) " +
+           "FROM Order o JOIN o.customer c JOIN o.deliveryAddress a " +
+           "WHERE o.createdAt >= :fromDate AND o.createdAt < :toDate AND o.orderStatus IN :statuses " +
+           "ORDER BY o.createdAt, o.orderId")
+    Stream<OrderExportRow> streamExportRows(@Param("fromDate") LocalDateTime fromDate,
+                                            @Param("toDate") LocalDateTime toDate,
+                                            @Param("statuses") Collection<Order.OrderStatus> statuses);
+    
     @Query("SELECT o FROM Order o WHERE o.customer.userId = :customerId AND " +
            "o.createdAt >= :fromDate AND o.createdAt <= :toDate ORDER BY o.createdAt DESC")
     Page<Order> findCustomerOrdersByDateRange(@Param("customerId") Long customerId,
@@ -70,16 +106,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT COUNT(o) FROM Order o WHERE o.createdAt >= :fromDate")
     long countOrdersSince(@Param("fromDate") LocalDateTime fromDate);
     
-    @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.orderStatus = 'DELIVERED' AND o.paymentStatus = 'COMPLETED'")
-    BigDecimal getTotalRevenue();
-    
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.customer.userId = :customerId AND " +
            "o.orderStatus = 'DELIVERED' AND o.paymentStatus = 'COMPLETED'")
     BigDecimal getCustomerTotalSpent(@Param("customerId") Long customerId);
     
-    @Query("SELECT AVG(o.totalAmount) FROM Order o WHERE o.orderStatus = 'DELIVERED'")
-    BigDecimal getAverageOrderValue();
-    
     @Query("SELECT o FROM Order o WHERE o.estimatedDeliveryTime <= :currentTime AND " +
            "o.orderStatus IN ('PLACED', 'CONFIRMED', 'PREPARING', 'READY_FOR_PICKUP', 'OUT_FOR_DELIVERY')")
     List<Order> findOverdueOrders(@Param("currentTime") LocalDateTime currentTime);
@@ -91,21 +121,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.paymentStatus = 'COMPLETED' AND o.refundStatus = 'PENDING'")
     List<Order> findOrdersWithPendingRefunds();
     
-    @Query("SELECT DATE(o.createdAt), COUNT(o), SUM(o.totalAmount) FROM Order o " +
-           "WHERE o.createdAt >= :fromDate AND o.orderStatus = 'DELIVERED' " +
-           "GROUP BY DATE(o.createdAt) ORDER BY DATE(o.createdAt)")
-    List<Object[]> getDailyOrderStats(@Param("fromDate") LocalDateTime fromDate);
-    
-    @Query("SELECT o.paymentMethod, COUNT(o) FROM Order o " +
-           "WHERE o.paymentStatus = 'COMPLETED' " +
-           "GROUP BY o.paymentMethod")
-    List<Object[]> getPaymentMethodStats();
-    
-    @Query("SELECT o.deliveryType, COUNT(o), AVG(o.totalAmount) FROM Order o " +
-           "WHERE o.orderStatus = 'DELIVERED' " +
-           "GROUP BY o.deliveryType")
-    List<Object[]> getDeliveryTypeStats();
-    
     // Additional methods needed by services
     Optional<Order> findByOrderNumberAndCustomer(String orderNumber, User customer);
     
@@ -113,13 +128,13 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Page<Order> findByOrderStatus(Order.OrderStatus orderStatus, Pageable pageable);
     
-    List<Order> findByDeliveryAddressPincodeAndOrderStatus(String pincode, Order.OrderStatus orderStatus);
+    List<Order> findByDeliveryAddressPostalCodeAndOrderStatus(String postalCode, Order.OrderStatus orderStatus);
     
     List<Order> findByOrderStatusOrderByCreatedAtAsc(Order.OrderStatus orderStatus);
     
     List<Order> findByOrderStatusAndActualDeliveryTimeBetween(Order.OrderStatus orderStatus, LocalDateTime fromDate, LocalDateTime toDate);
     
-    List<Order> findByDeliveryAddressPincodeAndCreatedAtBetween(String pincode, LocalDateTime fromDate, LocalDateTime toDate);
+    List<Order> findByDeliveryAddressPostalCodeAndCreatedAtBetween(String postalCode, LocalDateTime fromDate, LocalDateTime toDate);
     
     List<Order> findByCreatedAtBetween(LocalDateTime fromDate, LocalDateTime toDate);
     
@@ -2,7 +2,6 @@ package com.dawasakhi.backend.repository;
 
 import com.dawasakhi.backend.entity.SearchHistory;
 import com.dawasakhi.backend.entity.User;
-import com.dawasakhi.backend.service.SearchHistoryService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,60 +9,36 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Long> {
 
     Page<SearchHistory> findByUser(User user, Pageable pageable);
     
-    Optional<SearchHistory> findByUserAndSearchTermAndCreatedAtAfter(User user, String searchTerm, LocalDateTime afterTime);
-    
-    @Query("SELECT sh.searchTerm FROM SearchHistory sh WHERE sh.user = :user GROUP BY sh.searchTerm ORDER BY SUM(sh.searchCount) DESC")
-    List<String> findTopSearchTermsByUser(@Param("user") User user, Pageable pageable);
-    
-    @Query("SELECT sh.searchTerm FROM SearchHistory sh WHERE sh.user = :user ORDER BY sh.createdAt DESC")
-    List<String> findRecentSearchTermsByUser(@Param("user") User user, Pageable pageable);
-    
-    @Query("SELECT sh.searchTerm FROM SearchHistory sh WHERE sh.createdAt >= :fromDate GROUP BY sh.searchTerm ORDER BY SUM(sh.searchCount) DESC")
-    List<String> findTrendingSearchTerms(@Param("fromDate") LocalDateTime fromDate, Pageable pageable);
-    
-    @Query("SELECT sh.searchTerm FROM SearchHistory sh GROUP BY sh.searchTerm ORDER BY SUM(sh.searchCount) DESC")
-    List<String> findPopularSearchTerms(Pageable pageable);
-    
-    @Query("SELECT sh.searchTerm FROM SearchHistory sh WHERE sh.user = :user AND sh.searchTerm ILIKE %:query% ORDER BY sh.searchCount DESC, sh.createdAt DESC")
-    List<String> findUserSearchSuggestions(@Param("user") User user, @Param("query") String query, Pageable pageable);
-    
     @Query("SELECT sh.searchTerm FROM SearchHistory sh WHERE sh.searchTerm ILIKE %:query% GROUP BY sh.searchTerm ORDER BY SUM(sh.searchCount) DESC")
     List<String> findGlobalSearchSuggestions(@Param("query") String query, Pageable pageable);
     
     void deleteByUser(User user);
     
-    long countByUserAndCreatedAtBetween(User user, LocalDateTime fromDate, LocalDateTime toDate);
-    
-    @Query("SELECT COUNT(DISTINCT sh.searchTerm) FROM SearchHistory sh WHERE sh.user = :user AND sh.createdAt BETWEEN :fromDate AND :toDate")
-    long countDistinctSearchTermsByUserAndDateRange(@Param("user") User user, @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate);
-    
-    long countByUserAndSearchTypeAndCreatedAtBetween(User user, SearchHistory.SearchType searchType, LocalDateTime fromDate, LocalDateTime toDate);
+    // Date ranges filter on searchDate, the partition key, so only the months in range are read
+    long countByUserAndSearchDateBetween(User user, LocalDate fromDate, LocalDate toDate);
     
-    long countByCreatedAtBetween(LocalDateTime fromDate, LocalDateTime toDate);
+    @Query("SELECT COUNT(DISTINCT sh.searchTerm) FROM SearchHistory sh WHERE sh.user = :user AND sh.searchDate BETWEEN :fromDate AND :toDate")
+    long countDistinctSearchTermsByUserAndDateRange(@Param("user") User user, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
     
-    @Query("SELECT COUNT(DISTINCT sh.user) FROM SearchHistory sh WHERE sh.createdAt BETWEEN :fromDate AND :toDate")
-    long countDistinctUsersByDateRange(@Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate);
+    long countByUserAndSearchTypeAndSearchDateBetween(User user, SearchHistory.SearchType searchType, LocalDate fromDate, LocalDate toDate);
     
-    @Query("SELECT COUNT(DISTINCT sh.searchTerm) FROM SearchHistory sh WHERE sh.createdAt BETWEEN :fromDate AND :toDate")
-    long countDistinctSearchTermsByDateRange(@Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate);
+    long countBySearchDateBetween(LocalDate fromDate, LocalDate toDate);
     
-    long countBySearchTypeAndCreatedAtBetween(SearchHistory.SearchType searchType, LocalDateTime fromDate, LocalDateTime toDate);
+    @Query("SELECT COUNT(DISTINCT sh.user) FROM SearchHistory sh WHERE sh.searchDate BETWEEN :fromDate AND :toDate")
+    long countDistinctUsersByDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
     
-    @Query("SELECT new com.dawasakhi.backend.service.SearchHistoryService$SearchTrendData(sh.searchTerm, SUM(sh.searchCount), MAX(sh.createdAt)) " +
-           "FROM SearchHistory sh WHERE sh.createdAt >= :fromDate " +
-           "GROUP BY sh.searchTerm ORDER BY SUM(sh.searchCount) DESC")
-    List<SearchHistoryService.SearchTrendData> findSearchTrends(@Param("fromDate") LocalDateTime fromDate, Pageable pageable);
+    @Query("SELECT COUNT(DISTINCT sh.searchTerm) FROM SearchHistory sh WHERE sh.searchDate BETWEEN :fromDate AND :toDate")
+    long countDistinctSearchTermsByDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
     
-    boolean existsByUserAndSearchTerm(User user, String searchTerm);
+    long countBySearchTypeAndSearchDateBetween(SearchHistory.SearchType searchType, LocalDate fromDate, LocalDate toDate);
     
     long countByUser(User user);
 }
\ No newline at end of file
@@ -57,5 +57,5 @@ public interface UserAddressRepository extends JpaRepository<UserAddress, Long>
     
     Optional<UserAddress> findByUserAndIsDefaultTrue(User user);
     
-    List<UserAddress> findByPincode(String pincode);
+    List<UserAddress> findByPostalCode(String postalCode);
 }
\ No newline at end of file
@@ -59,9 +59,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= :fromDate")
     long countNewUsersSince(@Param("fromDate") LocalDateTime fromDate);
     
-    @Modifying
-    @Query("UPDATE User u SET u.lastLoginAt = :loginTime, u.failedLoginAttempts = 0, u.accountLockedUntil = NULL WHERE u.userId = :userId")
-    void updateLastLoginAndResetFailures(@Param("userId") Long userId, @Param("loginTime") LocalDateTime loginTime);
+    // Everything a successful login writes, in one narrow UPDATE instead of load-modify-save
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.lastLoginAt = :loginTime, u.failedLoginAttempts = 0, u.accountLockedUntil = NULL, " +
+           "u.phoneVerified = CASE WHEN :phoneVerified = true THEN true ELSE u.phoneVerified END, " +
+           "u.updatedAt = :loginTime WHERE u.userId = :userId")
+    int updateLastLoginAndResetFailures(@Param("userId") Long userId,
+                                        @Param("loginTime") LocalDateTime loginTime,
+                                        @Param("phoneVerified") boolean phoneVerified);
     
     @Modifying
     @Query("UPDATE User u SET u.failedLoginAttempts = u.failedLoginAttempts + 1 WHERE u.userId = :userId")
@@ -79,10 +84,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("UPDATE User u SET u.emailVerified = true WHERE u.userId = :userId")
     void markEmailAsVerified(@Param("userId") Long userId);
     
-    @Modifying
-    @Query("UPDATE User u SET u.refreshToken = :refreshToken WHERE u.userId = :userId")
-    void updateRefreshToken(@Param("userId") Long userId, @Param("refreshToken") String refreshToken);
-    
     @Query("SELECT u FROM User u WHERE u.fullName ILIKE %:searchTerm% OR u.phoneNumber ILIKE %:searchTerm% OR u.email ILIKE %:searchTerm%")
     Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
     
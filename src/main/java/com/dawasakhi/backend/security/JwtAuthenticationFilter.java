@@ -38,9 +38,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         if (StringUtils.hasText(jwt)) {
             try {
-                if (!jwtUtil.isTokenExpired(jwt) && !jwtUtil.isTokenBlacklisted(jwt)) {
-                    String username = jwtUtil.extractUsername(jwt);
-                    String role = jwtUtil.extractRole(jwt);
+                // Single verification per request; throws ExpiredJwtException for expired tokens
+                JwtUtil.VerifiedToken verifiedToken = jwtUtil.verifyToken(jwt);
+                
+                if (!jwtUtil.isTokenBlacklisted(verifiedToken)) {
+                    String username = verifiedToken.getSubject();
+                    String role = verifiedToken.getRole();
                     
                     if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                         // Create authorities from role
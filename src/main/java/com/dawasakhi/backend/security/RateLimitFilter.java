@@ -0,0 +1,346 @@
+package com.dawasakhi.backend.security;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Turns away requests over their rate limits with 429 and Retry-After, after the JWT filter (so
+// users are known) and before authorization, controllers or the database see them. Unauthenticated
+// requests count against their IP's hourly bucket; the security.rate-limit.routes add buckets per
+// route keyed by IP, by the phone number in the request body or by the authenticated user. Client
+// IPs come from the forwarded headers of trusted proxies (server.forward-headers-strategy).
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // Largest body read for a phone number; larger ones are refused on phone-keyed routes
+    private static final int MAX_BODY_BYTES = 8192;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.requests-per-hour:1000}")
+    private long requestsPerHour;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private List<Route> routes;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        routes = Binder.get(environment)
+                .bind("security.rate-limit.routes", Bindable.listOf(Route.class))
+                .orElse(Collections.emptyList());
+        for (Route route : routes) {
+            if (!StringUtils.hasText(route.getName()) || !StringUtils.hasText(route.getPath()) || route.getKey() == null
+                    || route.getCapacity() <= 0 || route.getPeriod() == null || route.getPeriod().isZero()) {
+                throw new IllegalStateException("Incomplete rate limit route: " + route.getName() + " " + route.getPath());
+            }
+        }
+        rejected = Counter.builder("security.rate-limit.rejected").register(meterRegistry);
+        if (enabled) {
+            logger.info("Rate limiting {} unauthenticated requests per IP and hour, {} route limits", requestsPerHour, routes.size());
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String clientIp = request.getRemoteAddr();
+        String user = currentUser();
+
+        // Authenticated traffic is limited per user by the routes, not by the IP it shares with
+        // everyone behind the same carrier NAT
+        List<RateLimiter.Limit> limits = new ArrayList<>();
+        if (user == null) {
+            limits.add(new RateLimiter.Limit(AppConstants.RATE_LIMIT + "ip:" + clientIp, requestsPerHour, Duration.ofHours(1)));
+        }
+
+        HttpServletRequest forwarded = request;
+        for (Route route : routes) {
+            if (!route.matches(request.getMethod(), path, pathMatcher)) {
+                continue;
+            }
+            String client;
+            switch (route.getKey()) {
+                case IP:
+                    client = clientIp;
+                    break;
+                case USER:
+                    client = user;
+                    break;
+                default:
+                    if (!(forwarded instanceof CachedBodyRequest)) {
+                        forwarded = new CachedBodyRequest(request);
+                    }
+                    // Fails closed: a body the phone number cannot be read from would skip the
+                    // phone's bucket, so it is refused instead
+                    byte[] body = ((CachedBodyRequest) forwarded).getCachedBody();
+                    if (body == null) {
+                        reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, AppConstants.ERROR_VALIDATION,
+                                "Request body too large");
+                        return;
+                    }
+                    client = phoneNumber(body);
+                    if (client == null) {
+                        reject(request, response, HttpStatus.BAD_REQUEST, AppConstants.ERROR_VALIDATION,
+                                "Phone number is required");
+                        return;
+                    }
+                    break;
+            }
+            // Anonymous requests on user routes are still covered by the IP limits
+            if (client != null) {
+                limits.add(new RateLimiter.Limit(AppConstants.RATE_LIMIT + route.getName() + ":" + client,
+                        route.getCapacity(), route.getPeriod()));
+            }
+        }
+
+        long waitMillis = rateLimiter.tryConsume(limits);
+        if (waitMillis > 0) {
+            rejected.increment();
+            long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+            logger.debug("Rate limit exceeded by {} for {} {}, retry after {}s",
+                    clientIp, request.getMethod(), request.getRequestURI(), retryAfterSeconds);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, AppConstants.ERROR_RATE_LIMIT_EXCEEDED,
+                    "Too many requests - retry after " + retryAfterSeconds + " seconds");
+            return;
+        }
+        filterChain.doFilter(forwarded, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled ||
+               path.equals("/health") ||
+               path.startsWith("/actuator/health");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        String code, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .success(false)
+                .error(ErrorResponse.ErrorDetail.builder()
+                        .code(code)
+                        .message(message)
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // The phoneNumber field of a JSON body, as the auth requests carry it
+    private String phoneNumber(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode phoneNumber = objectMapper.readTree(body).path("phoneNumber");
+            return phoneNumber.isTextual() && StringUtils.hasText(phoneNumber.asText()) ? phoneNumber.asText().trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public enum KeyType {
+        IP,
+        PHONE,
+        USER
+    }
+
+    // One security.rate-limit.routes entry: capacity requests per period for each client of the
+    // paths matching path (Ant pattern, relative to the context path) and method, if given
+    public static class Route {
+
+        private String name;
+        private String path;
+        private String method;
+        private KeyType key;
+        private long capacity;
+        private Duration period;
+
+        public boolean matches(String requestMethod, String requestPath, AntPathMatcher pathMatcher) {
+            return (method == null || method.equalsIgnoreCase(requestMethod)) && pathMatcher.match(path, requestPath);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+
+    // Buffers the body so the phone number can be looked up, and replays it to the controller. Only
+    // bodies up to MAX_BODY_BYTES are forwarded, so the buffer always holds the whole body.
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        // Null when the body is larger than MAX_BODY_BYTES
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            byte[] head = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            this.body = head.length <= MAX_BODY_BYTES ? head : null;
+        }
+
+        byte[] getCachedBody() {
+            return body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
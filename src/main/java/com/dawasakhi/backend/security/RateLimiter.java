@@ -0,0 +1,153 @@
+package com.dawasakhi.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Token buckets shared by all instances in Redis (redis/rate-limit-consume.lua). A key that Redis
+// reported empty is remembered locally until its next token is due, so a client hammering a limit
+// is turned away without a Redis call per request. While Redis is unreachable each instance falls
+// back to its own bucket4j buckets with the same limits.
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CONSUME_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/rate-limit-consume.lua"), List.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${security.rate-limit.local-cache-max-size:100000}")
+    private long localCacheMaxSize;
+
+    // Key -> epoch ms at which its bucket has a token again
+    private Cache<String, Long> emptyUntil;
+
+    private Cache<String, Bucket> localBuckets;
+
+    private volatile boolean redisAvailable = true;
+
+    @PostConstruct
+    public void init() {
+        emptyUntil = Caffeine.newBuilder()
+                .maximumSize(localCacheMaxSize)
+                .expireAfterWrite(1, TimeUnit.HOURS)
+                .build();
+        localBuckets = Caffeine.newBuilder()
+                .maximumSize(localCacheMaxSize)
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .build();
+    }
+
+    // Milliseconds until the request would be allowed; 0 when it was allowed and counted
+    public long tryConsume(List<Limit> limits) {
+        if (limits.isEmpty()) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        for (Limit limit : limits) {
+            Long until = emptyUntil.getIfPresent(limit.getKey());
+            if (until != null && until > now) {
+                return until - now;
+            }
+        }
+
+        try {
+            long wait = consumeInRedis(limits, now);
+            if (!redisAvailable) {
+                redisAvailable = true;
+                logger.info("Rate limiting is shared through Redis again");
+            }
+            return wait;
+        } catch (Exception e) {
+            if (redisAvailable) {
+                redisAvailable = false;
+                logger.warn("Rate limiting falls back to per-instance buckets, Redis is unavailable: {}", e.getMessage());
+            }
+            return consumeLocally(limits);
+        }
+    }
+
+    private long consumeInRedis(List<Limit> limits, long now) {
+        List<String> keys = new ArrayList<>(limits.size());
+        List<String> args = new ArrayList<>(limits.size() * 2);
+        for (Limit limit : limits) {
+            keys.add(limit.getKey());
+            args.add(String.valueOf(limit.getCapacity()));
+            args.add(String.valueOf(limit.getPeriod().toMillis()));
+        }
+        List<?> result = stringRedisTemplate.execute(CONSUME_SCRIPT, keys, args.toArray());
+        long wait = ((Number) result.get(0)).longValue();
+        if (wait > 0) {
+            int blocked = ((Number) result.get(1)).intValue() - 1;
+            emptyUntil.put(limits.get(blocked).getKey(), now + wait);
+        }
+        return wait;
+    }
+
+    // Checked before taking anything, so a request refused by one bucket is not counted by the others
+    private long consumeLocally(List<Limit> limits) {
+        List<Bucket> buckets = new ArrayList<>(limits.size());
+        long wait = 0;
+        for (Limit limit : limits) {
+            Bucket bucket = localBuckets.get(limit.getKey(), key -> Bucket.builder()
+                    .addLimit(Bandwidth.simple(limit.getCapacity(), limit.getPeriod()))
+                    .build());
+            long nanos = bucket.estimateAbilityToConsume(1).getNanosToWaitForRefill();
+            wait = Math.max(wait, (nanos + 999_999) / 1_000_000);
+            buckets.add(bucket);
+        }
+        if (wait > 0) {
+            return wait;
+        }
+        for (Bucket bucket : buckets) {
+            bucket.tryConsume(1);
+        }
+        return 0;
+    }
+
+    // One bucket: capacity requests per period for one client of one route
+    public static class Limit {
+
+        private final String key;
+        private final long capacity;
+        private final Duration period;
+
+        public Limit(String key, long capacity, Duration period) {
+            this.key = key;
+            this.capacity = capacity;
+            this.period = period;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+    }
+}
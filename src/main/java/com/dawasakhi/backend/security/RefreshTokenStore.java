@@ -0,0 +1,73 @@
+package com.dawasakhi.backend.security;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+
+// One Redis hash per user device holding the token family and the hash of the only refresh token
+// that may currently be exchanged. Every operation is a single script or command.
+@Component
+public class RefreshTokenStore {
+
+    public enum RotationResult {
+        ROTATED,
+        NO_SESSION,
+        FAMILY_REPLACED,
+        REUSE_DETECTED
+    }
+
+    private static final RedisScript<Long> CREATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/session-create.lua"), Long.class);
+    private static final RedisScript<Long> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/session-rotate.lua"), Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${jwt.refresh-expiry}")
+    private long refreshTokenExpiry;
+
+    public void createSession(Long userId, String deviceId, String familyId, String refreshToken) {
+        stringRedisTemplate.execute(CREATE_SCRIPT, Collections.singletonList(buildKey(userId, deviceId)),
+                familyId,
+                JwtUtil.hashToken(refreshToken),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(refreshTokenExpiry));
+    }
+
+    public RotationResult rotate(Long userId, String deviceId, String familyId,
+                                 String presentedToken, String newToken) {
+        Long result = stringRedisTemplate.execute(ROTATE_SCRIPT, Collections.singletonList(buildKey(userId, deviceId)),
+                familyId,
+                JwtUtil.hashToken(presentedToken),
+                JwtUtil.hashToken(newToken),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(refreshTokenExpiry));
+
+        if (result == null || result == 0) {
+            return RotationResult.NO_SESSION;
+        }
+        if (result == -1) {
+            return RotationResult.FAMILY_REPLACED;
+        }
+        if (result == -2) {
+            return RotationResult.REUSE_DETECTED;
+        }
+        return RotationResult.ROTATED;
+    }
+
+    public void revoke(Long userId, String deviceId) {
+        stringRedisTemplate.delete(buildKey(userId, deviceId));
+    }
+
+    private String buildKey(Long userId, String deviceId) {
+        return AppConstants.CACHE_REFRESH_SESSION + userId + ":" + deviceId;
+    }
+}
@@ -31,6 +31,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -77,15 +80,25 @@ public class SecurityConfig {
                 // Public medicine search endpoints
                 .requestMatchers(
                     "/medicines/search",
+                    "/medicines/search/scroll",
+                    "/medicines/search/trending",
+                    "/medicines/facets",
+                    "/medicines/suggest",
                     "/medicines/*/details"
                 ).permitAll()
                 
                 // Admin only endpoints
                 .requestMatchers(
                     "/admin/**",
+                    "/orders/export",
+                    "/orders/stats",
+                    "/orders/stats/*",
                     "/medicines/create",
                     "/medicines/*/update",
-                    "/medicines/*/delete"
+                    "/medicines/*/stock",
+                    "/medicines/*/delete",
+                    "/medicines/import",
+                    "/medicines/import/*"
                 ).hasRole("ADMIN")
                 
                 // Pharmacy endpoints
@@ -112,6 +125,9 @@ public class SecurityConfig {
         // Add JWT filter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // Rate limits, once the JWT filter has identified the user
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
+
         return http.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.dawasakhi.backend.security;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Redis-backed token blacklist with a local Bloom filter in front of it. The filter answers
+// "definitely not blacklisted" without a network call; only possible hits are confirmed in Redis.
+// Two generations are kept and rotated every access-token lifetime so the filter never fills up.
+@Component
+public class TokenBlacklist implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklist.class);
+
+    private static final String BLACKLISTED = "1";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${jwt.blacklist.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${jwt.blacklist.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    // Until the filter has been loaded from Redis it cannot rule anything out
+    private volatile boolean synced;
+
+    @PostConstruct
+    public void init() {
+        current = newFilter();
+        previous = newFilter();
+        listenerContainer.addMessageListener(this, new ChannelTopic(AppConstants.CHANNEL_TOKEN_BLACKLIST));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rotate();
+    }
+
+    public void add(String tokenId, long ttlMillis) {
+        current.put(tokenId);
+        stringRedisTemplate.opsForValue().set(buildKey(tokenId), BLACKLISTED, ttlMillis, TimeUnit.MILLISECONDS);
+        stringRedisTemplate.convertAndSend(AppConstants.CHANNEL_TOKEN_BLACKLIST, tokenId);
+    }
+
+    public boolean isBlacklisted(String tokenId) {
+        if (synced && !current.mightContain(tokenId) && !previous.mightContain(tokenId)) {
+            return false;
+        }
+        return BLACKLISTED.equals(stringRedisTemplate.opsForValue().get(buildKey(tokenId)));
+    }
+
+    // Entries live at most one access-token lifetime in Redis, so after two rotations a generation
+    // only holds expired ids. The new generation is seeded from Redis to cover longer-lived entries
+    // and anything published while this node was not subscribed.
+    @Scheduled(fixedDelayString = "${jwt.access-expiry}", initialDelayString = "${jwt.access-expiry}")
+    public void rotate() {
+        BloomFilter next = newFilter();
+        BloomFilter retiring = current;
+        current = next;
+        previous = retiring;
+
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(AppConstants.CACHE_TOKEN_BLACKLIST + "*")
+                .count(1000)
+                .build();
+        int loaded = 0;
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                next.put(cursor.next().substring(AppConstants.CACHE_TOKEN_BLACKLIST.length()));
+                loaded++;
+            }
+            synced = true;
+            logger.debug("Token blacklist filter rotated with {} live entries", loaded);
+        } catch (Exception e) {
+            synced = false;
+            logger.error("Error loading token blacklist from Redis, checking Redis on every request: {}", e.getMessage());
+        }
+    }
+
+    // Blacklist broadcast from any node, including this one
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        current.put(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    private String buildKey(String tokenId) {
+        return AppConstants.CACHE_TOKEN_BLACKLIST + tokenId;
+    }
+}
@@ -8,23 +8,27 @@ import com.dawasakhi.backend.dto.response.AuthResponse;
 import com.dawasakhi.backend.dto.response.UserResponse;
 import com.dawasakhi.backend.entity.User;
 import com.dawasakhi.backend.exception.AuthenticationException;
+import com.dawasakhi.backend.exception.DawaSureException;
 import com.dawasakhi.backend.exception.ResourceNotFoundException;
 import com.dawasakhi.backend.exception.ValidationException;
+import com.dawasakhi.backend.mapper.UserMapper;
 import com.dawasakhi.backend.repository.UserRepository;
+import com.dawasakhi.backend.security.RefreshTokenStore;
 import com.dawasakhi.backend.util.JwtUtil;
 import com.dawasakhi.backend.util.OtpUtil;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @Transactional
@@ -42,7 +46,7 @@ public class AuthService {
     private OtpUtil otpUtil;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -50,9 +54,14 @@ public class AuthService {
     @Autowired
     private SmsService smsService;
 
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
     @Value("${jwt.access-expiry}")
     private long accessTokenExpiry;
 
+    // Touches only Redis and the SMS queue, so no database transaction is opened
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void sendOtp(SendOtpRequest request) {
         String phoneNumber = request.getPhoneNumber();
         String otpType = request.getOtpType();
@@ -65,14 +74,14 @@ public class AuthService {
             throw new ValidationException(result.getError(), "OTP_GENERATION_FAILED");
         }
         
-        // Send SMS via Twilio
+        // Queue the SMS; delivery, retries and dead-lettering happen on the SMS workers
         try {
             smsService.sendOtp(phoneNumber, result.getOtp());
-            logger.info("OTP sent successfully to phone: {}", phoneNumber);
-        } catch (Exception e) {
-            logger.error("Failed to send OTP SMS to phone: {} - Error: {}", phoneNumber, e.getMessage());
-            // Don't fail the request if SMS fails, just log the OTP for development
-            logger.info("OTP generated for phone: {} - OTP: {}", phoneNumber, result.getOtp());
+            logger.info("OTP queued for phone: {}", phoneNumber);
+        } catch (DawaSureException e) {
+            // Drop the stored OTP so the user can retry without waiting out the resend interval
+            otpUtil.invalidateOtp(phoneNumber, otpType);
+            throw e;
         }
     }
 
@@ -91,19 +100,12 @@ public class AuthService {
         // Find or create user
         User user = findOrCreateUser(phoneNumber);
         
-        // Update last login
-        user.setLastLoginAt(LocalDateTime.now());
-        user.setFailedLoginAttempts(0);
-        user.setPhoneVerified(true);
-        user = userRepository.save(user);
-        
-        // Generate tokens
-        Map<String, String> tokens = jwtUtil.generateTokens(user);
-        user.setRefreshToken(tokens.get("refreshToken"));
-        userRepository.save(user);
+        // Record the login in a single UPDATE and start a new session for this device
+        recordSuccessfulLogin(user, true);
+        Map<String, String> tokens = startSession(user, request.getDeviceId());
         
         // Create response
-        UserResponse userResponse = modelMapper.map(user, UserResponse.class);
+        UserResponse userResponse = userMapper.toResponse(user);
         AuthResponse authResponse = new AuthResponse(
             tokens.get("accessToken"),
             tokens.get("refreshToken"),
@@ -134,18 +136,12 @@ public class AuthService {
             throw new AuthenticationException("Account is not active", "ACCOUNT_INACTIVE");
         }
         
-        // Update last login time
-        user.setLastLoginAt(LocalDateTime.now());
-        user.setFailedLoginAttempts(0); // Reset failed attempts on successful login
-        userRepository.save(user);
-        
-        // Generate tokens
-        Map<String, String> tokens = jwtUtil.generateTokens(user);
-        user.setRefreshToken(tokens.get("refreshToken"));
-        userRepository.save(user);
+        // Record the login in a single UPDATE and start a new session for this device
+        recordSuccessfulLogin(user, false);
+        Map<String, String> tokens = startSession(user, request.getDeviceId());
         
         // Create response
-        UserResponse userResponse = modelMapper.map(user, UserResponse.class);
+        UserResponse userResponse = userMapper.toResponse(user);
         AuthResponse authResponse = new AuthResponse(
             tokens.get("accessToken"),
             tokens.get("refreshToken"),
@@ -157,30 +153,37 @@ public class AuthService {
         return authResponse;
     }
 
+    // Reads the user for the response but writes only the Redis session
+    @Transactional(readOnly = true)
     public AuthResponse refreshToken(String refreshToken) {
         logger.info("Refreshing token");
         
-        if (refreshToken == null || !jwtUtil.validateRefreshToken(refreshToken)) {
-            throw new AuthenticationException("Invalid refresh token", "INVALID_REFRESH_TOKEN");
-        }
-        
-        String phoneNumber = jwtUtil.extractUsername(refreshToken);
-        Long userId = jwtUtil.extractUserId(refreshToken);
+        JwtUtil.VerifiedToken verifiedToken = verifyRefreshToken(refreshToken);
+        Long userId = Long.valueOf(verifiedToken.getUserId());
         
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found", "USER_NOT_FOUND"));
         
-        if (!user.getPhoneNumber().equals(phoneNumber) || !refreshToken.equals(user.getRefreshToken())) {
+        if (!user.getPhoneNumber().equals(verifiedToken.getSubject()) || !user.isActive()) {
             throw new AuthenticationException("Invalid refresh token", "INVALID_REFRESH_TOKEN");
         }
         
-        // Generate new tokens
-        Map<String, String> tokens = jwtUtil.generateTokens(user);
-        user.setRefreshToken(tokens.get("refreshToken"));
-        userRepository.save(user);
+        // Generate new tokens in the same family and swap them in atomically
+        Map<String, String> tokens = jwtUtil.generateTokens(user, verifiedToken.getDeviceId(), verifiedToken.getFamilyId());
+        RefreshTokenStore.RotationResult rotation = refreshTokenStore.rotate(userId, verifiedToken.getDeviceId(),
+            verifiedToken.getFamilyId(), refreshToken, tokens.get("refreshToken"));
+        
+        if (rotation == RefreshTokenStore.RotationResult.REUSE_DETECTED) {
+            logger.warn("Refresh token reuse detected for user: {} device: {}, session revoked",
+                userId, verifiedToken.getDeviceId());
+            throw new AuthenticationException("Refresh token has already been used, please log in again", "REFRESH_TOKEN_REUSED");
+        }
+        if (rotation != RefreshTokenStore.RotationResult.ROTATED) {
+            throw new AuthenticationException("Invalid refresh token", "INVALID_REFRESH_TOKEN");
+        }
         
         // Create response
-        UserResponse userResponse = modelMapper.map(user, UserResponse.class);
+        UserResponse userResponse = userMapper.toResponse(user);
         AuthResponse authResponse = new AuthResponse(
             tokens.get("accessToken"),
             tokens.get("refreshToken"),
@@ -188,28 +191,69 @@ public class AuthService {
             userResponse
         );
         
-        logger.info("Token refreshed successfully for user: {}", phoneNumber);
+        logger.info("Token refreshed successfully for user: {}", verifiedToken.getSubject());
         return authResponse;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void logout(String accessToken) {
         logger.info("User logging out");
         
         // Blacklist the token
         jwtUtil.blacklistToken(accessToken);
         
-        // Optionally clear refresh token from database
+        // End the refresh-token session of the device this token was issued to
         try {
-            String phoneNumber = jwtUtil.extractUsername(accessToken);
-            Optional<User> userOpt = userRepository.findByPhoneNumber(phoneNumber);
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                user.setRefreshToken(null);
-                userRepository.save(user);
-                logger.info("User logged out successfully: {}", phoneNumber);
-            }
+            JwtUtil.VerifiedToken verifiedToken = jwtUtil.verifyToken(accessToken);
+            refreshTokenStore.revoke(Long.valueOf(verifiedToken.getUserId()), verifiedToken.getDeviceId());
+            logger.info("User logged out successfully: {}", verifiedToken.getSubject());
+        } catch (Exception e) {
+            logger.warn("Error revoking refresh token session during logout: {}", e.getMessage());
+        }
+    }
+
+    private JwtUtil.VerifiedToken verifyRefreshToken(String refreshToken) {
+        if (refreshToken == null) {
+            throw new AuthenticationException("Invalid refresh token", "INVALID_REFRESH_TOKEN");
+        }
+        
+        JwtUtil.VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtUtil.verifyToken(refreshToken);
         } catch (Exception e) {
-            logger.warn("Error clearing refresh token during logout: {}", e.getMessage());
+            logger.error("Refresh token validation failed: {}", e.getMessage());
+            throw new AuthenticationException("Invalid refresh token", "INVALID_REFRESH_TOKEN");
+        }
+        
+        // Refresh tokens issued before session families existed cannot be rotated
+        if (!"refresh".equals(verifiedToken.getTokenType()) || verifiedToken.isExpired()
+                || verifiedToken.getFamilyId() == null) {
+            throw new AuthenticationException("Invalid refresh token", "INVALID_REFRESH_TOKEN");
+        }
+        return verifiedToken;
+    }
+
+    private Map<String, String> startSession(User user, String deviceId) {
+        String device = deviceId != null ? deviceId : AppConstants.DEFAULT_DEVICE_ID;
+        String familyId = UUID.randomUUID().toString();
+        
+        Map<String, String> tokens = jwtUtil.generateTokens(user, device, familyId);
+        refreshTokenStore.createSession(user.getUserId(), device, familyId, tokens.get("refreshToken"));
+        return tokens;
+    }
+
+    // The UPDATE clears the persistence context, so the detached user is only brought in line
+    // with the new row for the response mapping
+    private void recordSuccessfulLogin(User user, boolean phoneVerified) {
+        LocalDateTime loginTime = LocalDateTime.now();
+        userRepository.updateLastLoginAndResetFailures(user.getUserId(), loginTime, phoneVerified);
+        
+        user.setLastLoginAt(loginTime);
+        user.setFailedLoginAttempts(0);
+        user.setAccountLockedUntil(null);
+        user.setUpdatedAt(loginTime);
+        if (phoneVerified) {
+            user.setPhoneVerified(true);
         }
     }
 
@@ -258,6 +302,6 @@ public class AuthService {
         User user = userRepository.findByPhoneNumber(phoneNumber)
             .orElseThrow(() -> new ResourceNotFoundException("User not found", "USER_NOT_FOUND"));
         
-        return modelMapper.map(user, UserResponse.class);
+        return userMapper.toResponse(user);
     }
 }
\ No newline at end of file
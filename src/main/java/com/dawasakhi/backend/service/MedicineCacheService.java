@@ -0,0 +1,161 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.event.MedicineChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+// Two tiers: a per-instance Caffeine cache in front of Redis. Each medicine has a version in Redis
+// that every eviction bumps; a miss only writes what it read from the database back to Redis if the
+// version is still the one it saw before reading, so a read that raced a change cannot put the old
+// row back after the change evicted it.
+@Service
+public class MedicineCacheService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicineCacheService.class);
+
+    private static final RedisScript<Long> SET_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/medicine-cache-set.lua"), Long.class);
+
+    private static final RedisScript<Long> EVICT_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/medicine-cache-evict.lua"), Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.medicine.l1.max-size:10000}")
+    private long l1MaxSize;
+
+    @Value("${cache.medicine.l1.ttl:300}")
+    private long l1TtlSeconds;
+
+    private Cache<Long, Medicine> localCache;
+    private Counter l2Hits;
+    private Counter l2Misses;
+    private Counter l2Errors;
+    private Counter invalidations;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+            .maximumSize(l1MaxSize)
+            .expireAfterWrite(Duration.ofSeconds(l1TtlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "medicineDetails.l1");
+
+        l2Hits = Counter.builder("medicine.cache.l2").tag("result", "hit").register(meterRegistry);
+        l2Misses = Counter.builder("medicine.cache.l2").tag("result", "miss").register(meterRegistry);
+        l2Errors = Counter.builder("medicine.cache.l2").tag("result", "error").register(meterRegistry);
+        invalidations = Counter.builder("medicine.cache.invalidations").register(meterRegistry);
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(AppConstants.CHANNEL_MEDICINE_INVALIDATION));
+    }
+
+    public Medicine get(Long medicineId, Function<Long, Medicine> loader) {
+        return localCache.get(medicineId, id -> loadThroughRedis(id, loader));
+    }
+
+    private Medicine loadThroughRedis(Long medicineId, Function<Long, Medicine> loader) {
+        List<String> keys = List.of(buildKey(medicineId), buildVersionKey(medicineId));
+        String version = null;
+        try {
+            List<String> cached = stringRedisTemplate.opsForValue().multiGet(keys);
+            if (cached.get(0) != null) {
+                l2Hits.increment();
+                return objectMapper.readValue(cached.get(0), Medicine.class);
+            }
+            l2Misses.increment();
+            version = cached.get(1) != null ? cached.get(1) : "";
+        } catch (Exception e) {
+            l2Errors.increment();
+            logger.error("Error reading medicine {} from Redis cache: {}", medicineId, e.getMessage());
+        }
+
+        Medicine medicine = loader.apply(medicineId);
+
+        // Without the version there is no telling whether the row is still current
+        if (version == null) {
+            return medicine;
+        }
+        try {
+            stringRedisTemplate.execute(SET_SCRIPT, keys, version, objectMapper.writeValueAsString(medicine),
+                String.valueOf(AppConstants.CACHE_TTL_MEDIUM));
+        } catch (Exception e) {
+            l2Errors.increment();
+            logger.error("Error writing medicine {} to Redis cache: {}", medicineId, e.getMessage());
+        }
+        return medicine;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        evict(event.getMedicineId());
+    }
+
+    public void evict(Long medicineId) {
+        localCache.invalidate(medicineId);
+        try {
+            // The version has to outlive any read in progress: once it expires, a read that started
+            // before this eviction sees no version again and would cache the old row
+            stringRedisTemplate.execute(EVICT_SCRIPT, List.of(buildKey(medicineId), buildVersionKey(medicineId)),
+                String.valueOf(AppConstants.CACHE_TTL_LONG));
+            stringRedisTemplate.convertAndSend(AppConstants.CHANNEL_MEDICINE_INVALIDATION, medicineId.toString());
+        } catch (Exception e) {
+            logger.error("Error invalidating medicine {} in Redis cache: {}", medicineId, e.getMessage());
+        }
+    }
+
+    // Invalidation broadcast from any node, including this one
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Long medicineId = Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8));
+            localCache.invalidate(medicineId);
+            invalidations.increment();
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed medicine invalidation message");
+        }
+    }
+
+    private String buildKey(Long medicineId) {
+        return AppConstants.CACHE_MEDICINE_DETAILS + medicineId;
+    }
+
+    private String buildVersionKey(Long medicineId) {
+        return AppConstants.CACHE_MEDICINE_VERSION + medicineId;
+    }
+}
@@ -0,0 +1,120 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.exception.ValidationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// Opaque keyset position: the sort it was issued for and the sort key values of the last row
+// returned, medicineId last. Clients only ever echo it back, so the format can change freely.
+public final class MedicineCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String sortBy;
+    private final String sortDir;
+    private final List<String> keys;
+
+    public MedicineCursor(String sortBy, String sortDir, List<String> keys) {
+        this.sortBy = sortBy;
+        this.sortDir = sortDir;
+        this.keys = keys;
+    }
+
+    // Sort key values of the last row returned, in key order
+    public static MedicineCursor of(String sortBy, String sortDir, List<?> values) {
+        List<String> keys = new ArrayList<>(values.size());
+        for (Object value : values) {
+            // Native queries hand timestamps back as java.sql.Timestamp, whose toString is not ISO
+            if (value instanceof Timestamp timestamp) {
+                value = timestamp.toLocalDateTime();
+            }
+            keys.add(value != null ? value.toString() : null);
+        }
+        return new MedicineCursor(sortBy, sortDir, keys);
+    }
+
+    // A null or blank token is the first page
+    public static MedicineCursor decode(String token, String sortBy, String sortDir) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        MedicineCursor cursor;
+        try {
+            JsonNode node = MAPPER.readTree(Base64.getUrlDecoder().decode(token));
+            List<String> keys = new ArrayList<>();
+            for (JsonNode key : node.withArray("k")) {
+                keys.add(key.isNull() ? null : key.asText());
+            }
+            cursor = new MedicineCursor(node.path("s").asText(), node.path("d").asText(), keys);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new ValidationException("Invalid cursor", "INVALID_CURSOR");
+        }
+
+        if (cursor.keys.isEmpty() || !cursor.sortBy.equalsIgnoreCase(sortBy) || !cursor.sortDir.equalsIgnoreCase(sortDir)) {
+            throw new ValidationException("Cursor was issued for a different sort order", "INVALID_CURSOR");
+        }
+        return cursor;
+    }
+
+    public String encode() {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("s", sortBy);
+        node.put("d", sortDir);
+        ArrayNode array = node.putArray("k");
+        keys.forEach(array::add);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    // Sort key at the given position converted to the type of the column it was read from
+    public Object valueAt(int index, Class<?> type) {
+        if (index >= keys.size()) {
+            throw new ValidationException("Invalid cursor", "INVALID_CURSOR");
+        }
+        String value = keys.get(index);
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type == Boolean.class) {
+                return Boolean.valueOf(value);
+            }
+            if (type == Float.class) {
+                return Float.valueOf(value);
+            }
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor", "INVALID_CURSOR");
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type: " + type.getName());
+    }
+}
@@ -0,0 +1,276 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.dto.response.MedicineFacets;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.event.MedicineChangedEvent;
+import com.dawasakhi.backend.event.MedicinesImportedEvent;
+import com.dawasakhi.backend.repository.MedicineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Category, manufacturer, form and prescription counts over the active catalogue, kept in memory and
+// adjusted from MedicineChangedEvent instead of running GROUP BY over medicines on every sidebar load.
+// Each active medicine's facet values are remembered so an update can take back what it counted before.
+@Service
+public class MedicineFacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicineFacetService.class);
+
+    private static final Comparator<MedicineFacets.FacetCount> BY_COUNT =
+        Comparator.comparingLong(MedicineFacets.FacetCount::getCount).reversed()
+            .thenComparing(MedicineFacets.FacetCount::getValue);
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private MedicineSearchService medicineSearchService;
+
+    // Guarded by this
+    private Map<Long, FacetKey> activeMedicines = new HashMap<>();
+    private FacetCounts counts = new FacetCounts();
+
+    // Read-side views, rebuilt from counts on first read after a change
+    private volatile List<String> categories;
+    private volatile List<String> manufacturers;
+    private volatile MedicineFacets catalogFacets;
+
+    // One rebuild at a time, so each knows the changes it has to replay
+    private final Object rebuildLock = new Object();
+
+    // Changes seen while a rebuild reads the catalogue, replayed into it before the swap; guarded by this
+    private List<MedicineChangedEvent> changesDuringRebuild;
+
+    // Bulk imports skip the per-medicine events, so they trigger a full rebuild
+    @EventListener({ApplicationReadyEvent.class, MedicinesImportedEvent.class})
+    public void rebuildCounts() {
+        synchronized (rebuildLock) {
+            try {
+                rebuild();
+            } finally {
+                // Also after a failed rebuild, which must not keep collecting changes
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Map<Long, FacetKey> rebuiltMedicines = new HashMap<>();
+        FacetCounts rebuiltCounts = new FacetCounts();
+        for (Object[] row : medicineRepository.findFacetKeysByStatus(Medicine.MedicineStatus.ACTIVE)) {
+            FacetKey key = new FacetKey((String) row[1], (String) row[2], (Medicine.MedicineForm) row[3],
+                Boolean.TRUE.equals(row[4]));
+            rebuiltMedicines.put((Long) row[0], key);
+            rebuiltCounts.add(key, 1);
+        }
+
+        // A change committed after the read started would otherwise be lost in the swap
+        synchronized (this) {
+            changesDuringRebuild.forEach(event -> apply(rebuiltMedicines, rebuiltCounts, event));
+            activeMedicines = rebuiltMedicines;
+            counts = rebuiltCounts;
+            invalidateViews();
+        }
+        logger.info("Medicine facet counts built for {} medicines in {} ms",
+            rebuiltMedicines.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        if (event.getChangeType() == MedicineChangedEvent.ChangeType.STOCK) {
+            return;
+        }
+        synchronized (this) {
+            if (apply(activeMedicines, counts, event)) {
+                invalidateViews();
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        }
+    }
+
+    // Moves the medicine's count to its current facet values; false when they did not change
+    private static boolean apply(Map<Long, FacetKey> medicines, FacetCounts target, MedicineChangedEvent event) {
+        Medicine medicine = event.getMedicine();
+        FacetKey current = event.getChangeType() != MedicineChangedEvent.ChangeType.DELETED && medicine.isActive() ?
+            new FacetKey(medicine.getTherapeuticCategory(), medicine.getManufacturer(), medicine.getMedicineForm(),
+                Boolean.TRUE.equals(medicine.getPrescriptionRequired())) :
+            null;
+        FacetKey previous = current != null ?
+            medicines.put(medicine.getMedicineId(), current) :
+            medicines.remove(medicine.getMedicineId());
+        if (Objects.equals(previous, current)) {
+            return false;
+        }
+        if (previous != null) {
+            target.add(previous, -1);
+        }
+        if (current != null) {
+            target.add(current, 1);
+        }
+        return true;
+    }
+
+    // Active categories in alphabetical order
+    public List<String> getCategories() {
+        List<String> view = categories;
+        if (view == null) {
+            synchronized (this) {
+                view = categories = sortedNames(counts.categories);
+            }
+        }
+        return view;
+    }
+
+    // Active manufacturers in alphabetical order
+    public List<String> getManufacturers() {
+        List<String> view = manufacturers;
+        if (view == null) {
+            synchronized (this) {
+                view = manufacturers = sortedNames(counts.manufacturers);
+            }
+        }
+        return view;
+    }
+
+    // Facets of the whole active catalogue for a blank search term, otherwise of the medicines
+    // /medicines/search would return for it
+    public MedicineFacets getFacets(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            MedicineFacets view = catalogFacets;
+            if (view == null) {
+                synchronized (this) {
+                    view = catalogFacets = counts.toFacets();
+                }
+            }
+            return view;
+        }
+
+        FacetCounts searchCounts = new FacetCounts();
+        for (Object[] row : medicineSearchService.facetCounts(searchTerm.trim())) {
+            long count = ((Number) row[4]).longValue();
+            switch (((Number) row[5]).intValue()) {
+                case MedicineSearchService.FACET_CATEGORY -> {
+                    searchCounts.categories.merge((String) row[0], count, Long::sum);
+                    searchCounts.total += count;
+                }
+                case MedicineSearchService.FACET_FORM -> searchCounts.forms.merge((String) row[1], count, Long::sum);
+                case MedicineSearchService.FACET_MANUFACTURER -> searchCounts.manufacturers.merge((String) row[2], count, Long::sum);
+                case MedicineSearchService.FACET_PRESCRIPTION -> {
+                    if (Boolean.TRUE.equals(row[3])) {
+                        searchCounts.prescriptionRequired += count;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return searchCounts.toFacets();
+    }
+
+    private void invalidateViews() {
+        categories = null;
+        manufacturers = null;
+        catalogFacets = null;
+    }
+
+    private static List<String> sortedNames(Map<String, Long> facet) {
+        List<String> names = new ArrayList<>(facet.keySet());
+        names.remove(null);
+        names.sort(null);
+        return List.copyOf(names);
+    }
+
+    private static List<MedicineFacets.FacetCount> toFacetCounts(Map<String, Long> facet) {
+        List<MedicineFacets.FacetCount> facetCounts = new ArrayList<>(facet.size());
+        facet.forEach((value, count) -> {
+            if (value != null) {
+                facetCounts.add(new MedicineFacets.FacetCount(value, count));
+            }
+        });
+        facetCounts.sort(BY_COUNT);
+        return List.copyOf(facetCounts);
+    }
+
+    // Facet values one active medicine contributes to the counts
+    private static final class FacetKey {
+        private final String category;
+        private final String manufacturer;
+        private final Medicine.MedicineForm form;
+        private final boolean prescriptionRequired;
+
+        private FacetKey(String category, String manufacturer, Medicine.MedicineForm form, boolean prescriptionRequired) {
+            this.category = category;
+            this.manufacturer = manufacturer;
+            this.form = form;
+            this.prescriptionRequired = prescriptionRequired;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FacetKey other)) {
+                return false;
+            }
+            return prescriptionRequired == other.prescriptionRequired &&
+                Objects.equals(category, other.category) &&
+                Objects.equals(manufacturer, other.manufacturer) &&
+                form == other.form;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, manufacturer, form, prescriptionRequired);
+        }
+    }
+
+    // Null facet values are counted so totals add up, and left out of the lists served
+    private static final class FacetCounts {
+        private final Map<String, Long> categories = new HashMap<>();
+        private final Map<String, Long> manufacturers = new HashMap<>();
+        private final Map<String, Long> forms = new HashMap<>();
+        private long total;
+        private long prescriptionRequired;
+
+        private void add(FacetKey key, long delta) {
+            adjust(categories, key.category, delta);
+            adjust(manufacturers, key.manufacturer, delta);
+            adjust(forms, key.form != null ? key.form.name() : null, delta);
+            total += delta;
+            if (key.prescriptionRequired) {
+                prescriptionRequired += delta;
+            }
+        }
+
+        private static void adjust(Map<String, Long> facet, String value, long delta) {
+            facet.merge(value, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+
+        private MedicineFacets toFacets() {
+            return new MedicineFacets(total, toFacetCounts(categories), toFacetCounts(forms),
+                toFacetCounts(manufacturers), prescriptionRequired, total - prescriptionRequired);
+        }
+    }
+}
@@ -0,0 +1,575 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.dto.response.MedicineImportStatus;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.event.MedicinesImportedEvent;
+import com.dawasakhi.backend.exception.DawaSureException;
+import com.dawasakhi.backend.exception.ResourceNotFoundException;
+import com.dawasakhi.backend.exception.ValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// Bulk import of supplier catalogues. The upload is spooled to a temp file and parsed as a stream on
+// a single worker thread, so memory stays bounded by the chunk size whatever the file size. Each
+// chunk is validated against the Medicine constraints, checked for existing generic name +
+// manufacturer pairs in one query, and written as one JDBC batch without entity overhead. Jobs are
+// kept in memory for polling and forgotten after the retention period.
+@Service
+public class MedicineImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicineImportService.class);
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private static final String INSERT_SQL = "INSERT INTO medicines (medicine_id, generic_name, brand_name, manufacturer, " +
+        "composition, medicine_form, strength, pack_size, pack_type, mrp, discount_percentage, selling_price, " +
+        "prescription_required, schedule_type, hsn_code, therapeutic_category, drug_category, drug_license_number, " +
+        "storage_instructions, contraindications, side_effects, usage_instructions, dosage_instructions, " +
+        "age_restrictions, pregnancy_category, image_urls, tags, status, is_featured, search_keywords, " +
+        "min_order_quantity, max_order_quantity, stock_quantity, expiry_date, batch_number, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Same sequence and block size as Medicine's pooled id generator
+    private static final String NEXT_ID_BLOCKS_SQL = "SELECT nextval('medicines_medicine_id_seq') FROM generate_series(1, ?)";
+
+    // Keys are lower-cased by the caller; lower() again on the medicines side hits idx_medicine_lower_name_manufacturer
+    private static final String EXISTING_KEYS_SQL = "SELECT k.generic_name, k.manufacturer " +
+        "FROM unnest(?::text[], ?::text[]) AS k(generic_name, manufacturer) " +
+        "WHERE EXISTS (SELECT 1 FROM medicines m WHERE lower(m.generic_name) = k.generic_name " +
+        "AND lower(m.manufacturer) = k.manufacturer)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.medicine-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.medicine-import.max-upload-bytes:536870912}")
+    private long maxUploadBytes;
+
+    @Value("${app.medicine-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${app.medicine-import.job-retention-hours:24}")
+    private long jobRetentionHours;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService worker;
+
+    @PostConstruct
+    public void start() {
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "medicine-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeImportIndex() {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/medicine-import.sql")).execute(dataSource);
+        } catch (Exception e) {
+            logger.warn("Failed to create medicine import index, duplicate checks will scan medicines: {}", e.getMessage());
+        }
+    }
+
+    // Spools the body to a temp file and queues the import; returns the queued job for polling
+    public MedicineImportStatus submit(InputStream body, Format format) {
+        removeExpiredJobs();
+
+        Path file;
+        long size;
+        try {
+            file = Files.createTempFile("medicine-import-", format == Format.CSV ? ".csv" : ".ndjson");
+        } catch (IOException e) {
+            throw new DawaSureException("Failed to store import file", "IMPORT_STORAGE_FAILED");
+        }
+        try {
+            size = spool(body, file);
+        } catch (ValidationException e) {
+            deleteQuietly(file);
+            throw e;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new DawaSureException("Failed to read import file: " + e.getMessage(), "IMPORT_UPLOAD_FAILED", HttpStatus.BAD_REQUEST);
+        }
+        if (size == 0) {
+            deleteQuietly(file);
+            throw new ValidationException("Import file is empty", "IMPORT_EMPTY");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format, size);
+        jobs.put(job.jobId, job);
+        worker.execute(() -> run(job, file));
+        logger.info("Medicine import {} queued: {} {} bytes", job.jobId, format, size);
+        return job.toStatus();
+    }
+
+    public MedicineImportStatus getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId, "IMPORT_JOB_NOT_FOUND");
+        }
+        return job.toStatus();
+    }
+
+    private long spool(InputStream body, Path file) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxUploadBytes) {
+                    throw new ValidationException("Import file is larger than " + maxUploadBytes + " bytes", "IMPORT_TOO_LARGE");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.startedAt = LocalDateTime.now();
+        job.status = Status.RUNNING;
+        ChunkWriter writer = new ChunkWriter(job);
+        Status outcome = Status.COMPLETED;
+
+        try (FileInputStream in = new FileInputStream(file.toFile());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            job.input = in;
+            if (job.format == Format.CSV) {
+                readCsv(reader, writer);
+            } else {
+                readNdjson(reader, writer);
+            }
+            writer.flush();
+        } catch (Exception e) {
+            // Rows of chunks already flushed stay imported; the report says how far the job got
+            job.failureMessage = describe(e);
+            outcome = Status.FAILED;
+            logger.error("Medicine import {} failed after {} rows: {}", job.jobId, job.rowsProcessed, e.getMessage());
+        } finally {
+            job.bytesRead = job.sizeBytes;
+            job.input = null;
+            deleteQuietly(file);
+        }
+
+        // Listeners run on this thread, so a finished job's medicines are already searchable and counted
+        if (job.imported > 0) {
+            eventPublisher.publishEvent(new MedicinesImportedEvent(job.jobId, job.imported));
+        }
+        job.finishedAt = LocalDateTime.now();
+        job.status = outcome;
+        logger.info("Medicine import {} {}: {} rows, {} imported, {} duplicates, {} failed",
+            job.jobId, outcome, job.rowsProcessed, job.imported, job.duplicates, job.failed);
+    }
+
+    // Header row with Medicine property names; empty cells are treated as absent
+    private void readCsv(BufferedReader reader, ChunkWriter writer) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class).with(schema).readValues(reader)) {
+            while (rows.hasNextValue()) {
+                Map<String, String> values = rows.nextValue();
+                values.values().removeIf(value -> value == null || value.isBlank());
+                long row = writer.nextRow();
+                try {
+                    writer.accept(row, objectMapper.convertValue(values, Medicine.class));
+                } catch (IllegalArgumentException e) {
+                    writer.reject(row, describe(e));
+                }
+            }
+        }
+    }
+
+    // One Medicine JSON object per line
+    private void readNdjson(BufferedReader reader, ChunkWriter writer) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = writer.nextRow();
+            try {
+                writer.accept(row, objectMapper.readValue(line, Medicine.class));
+            } catch (JsonProcessingException e) {
+                writer.reject(row, describe(e));
+            }
+        }
+    }
+
+    private static String describe(Exception e) {
+        Throwable cause = e instanceof JsonProcessingException ? e : e.getCause();
+        if (cause instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            return (field != null ? field + ": " : "") + mapping.getOriginalMessage();
+        }
+        if (cause instanceof JsonProcessingException processing) {
+            return processing.getOriginalMessage();
+        }
+        return e.getMessage();
+    }
+
+    private static String dedupeKey(String genericName, String manufacturer) {
+        return genericName.toLowerCase(Locale.ROOT) + '\n' + manufacturer.toLowerCase(Locale.ROOT);
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(jobRetentionHours);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Collects valid rows and writes them chunkSize at a time
+    private final class ChunkWriter {
+        private final ImportJob job;
+        private final Map<String, PendingRow> pending = new LinkedHashMap<>();
+        private long rowCount;
+
+        private ChunkWriter(ImportJob job) {
+            this.job = job;
+        }
+
+        private long nextRow() {
+            job.rowsProcessed = ++rowCount;
+            return rowCount;
+        }
+
+        private void reject(long row, String message) {
+            job.failed++;
+            job.addError(row, message, maxReportedErrors);
+        }
+
+        private void accept(long row, Medicine medicine) {
+            prepare(medicine);
+            Set<ConstraintViolation<Medicine>> violations = validator.validate(medicine);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            String key = dedupeKey(medicine.getGenericName(), medicine.getManufacturer());
+            PendingRow previous = pending.putIfAbsent(key, new PendingRow(row, medicine));
+            if (previous != null) {
+                job.duplicates++;
+                job.addError(row, "Duplicate of row " + previous.row + " (same generic name and manufacturer)", maxReportedErrors);
+                return;
+            }
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            Set<String> existing = findExistingKeys(pending.keySet());
+            List<PendingRow> inserts = new ArrayList<>(pending.size());
+            pending.forEach((key, pendingRow) -> {
+                if (existing.contains(key)) {
+                    job.duplicates++;
+                    job.addError(pendingRow.row, "Medicine with this generic name and manufacturer already exists", maxReportedErrors);
+                } else {
+                    inserts.add(pendingRow);
+                }
+            });
+            pending.clear();
+            assignIds(inserts);
+
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, pendingRow) -> bind(ps, pendingRow.medicine)));
+                job.imported += inserts.size();
+            } catch (DataAccessException e) {
+                // A row the database rejected aborts the whole batch; retry one by one to find it
+                for (PendingRow pendingRow : inserts) {
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, pendingRow.medicine));
+                        job.imported++;
+                    } catch (DataAccessException rowFailure) {
+                        reject(pendingRow.row, rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            job.bytesRead = positionOf(job.input);
+        }
+
+        // Like Hibernate's pooled optimizer, each sequence value is the highest id of its block.
+        // Values below one full block are skipped: a new sequence's first value is handled
+        // specially by Hibernate and its ids are not ours to take.
+        private void assignIds(List<PendingRow> rows) {
+            List<Long> ids = new ArrayList<>(rows.size());
+            while (ids.size() < rows.size()) {
+                int blocks = (rows.size() - ids.size() + AppConstants.ID_ALLOCATION_SIZE - 1) / AppConstants.ID_ALLOCATION_SIZE;
+                for (Long hi : jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks)) {
+                    if (hi < AppConstants.ID_ALLOCATION_SIZE) {
+                        continue;
+                    }
+                    for (long id = hi - AppConstants.ID_ALLOCATION_SIZE + 1; id <= hi && ids.size() < rows.size(); id++) {
+                        ids.add(id);
+                    }
+                }
+            }
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).medicine.setMedicineId(ids.get(i));
+            }
+        }
+
+        private Set<String> findExistingKeys(Set<String> keys) {
+            List<String> genericNames = new ArrayList<>(keys.size());
+            List<String> manufacturers = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                int separator = key.indexOf('\n');
+                genericNames.add(key.substring(0, separator));
+                manufacturers.add(key.substring(separator + 1));
+            }
+
+            Set<String> existing = new HashSet<>();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(EXISTING_KEYS_SQL);
+                ps.setArray(1, connection.createArrayOf("text", genericNames.toArray()));
+                ps.setArray(2, connection.createArrayOf("text", manufacturers.toArray()));
+                return ps;
+            }, rs -> {
+                existing.add(rs.getString(1) + '\n' + rs.getString(2));
+            });
+            return existing;
+        }
+    }
+
+    // Fields the file must not control, plus the defaults Hibernate would otherwise have applied
+    private static void prepare(Medicine medicine) {
+        LocalDateTime now = LocalDateTime.now();
+        medicine.setMedicineId(null);
+        medicine.setStatus(Medicine.MedicineStatus.ACTIVE);
+        medicine.setCreatedAt(now);
+        medicine.setUpdatedAt(now);
+        if (medicine.getDiscountPercentage() == null) {
+            medicine.setDiscountPercentage(BigDecimal.ZERO);
+        }
+        if (medicine.getPrescriptionRequired() == null) {
+            medicine.setPrescriptionRequired(false);
+        }
+        if (medicine.getIsFeatured() == null) {
+            medicine.setIsFeatured(false);
+        }
+        if (medicine.getMinOrderQuantity() == null) {
+            medicine.setMinOrderQuantity(1);
+        }
+        if (medicine.getMaxOrderQuantity() == null) {
+            medicine.setMaxOrderQuantity(10);
+        }
+        if (medicine.getStockQuantity() == null) {
+            medicine.setStockQuantity(0);
+        }
+        medicine.calculateSellingPrice();
+    }
+
+    private static void bind(PreparedStatement ps, Medicine medicine) throws SQLException {
+        int index = 1;
+        ps.setLong(index++, medicine.getMedicineId());
+        ps.setString(index++, medicine.getGenericName());
+        ps.setString(index++, medicine.getBrandName());
+        ps.setString(index++, medicine.getManufacturer());
+        ps.setString(index++, medicine.getComposition());
+        ps.setString(index++, medicine.getMedicineForm().name());
+        ps.setString(index++, medicine.getStrength());
+        ps.setString(index++, medicine.getPackSize());
+        ps.setString(index++, medicine.getPackType());
+        ps.setBigDecimal(index++, medicine.getMrp());
+        ps.setBigDecimal(index++, medicine.getDiscountPercentage());
+        ps.setBigDecimal(index++, medicine.getSellingPrice());
+        ps.setBoolean(index++, medicine.getPrescriptionRequired());
+        ps.setString(index++, medicine.getScheduleType() != null ? medicine.getScheduleType().name() : null);
+        ps.setString(index++, medicine.getHsnCode());
+        ps.setString(index++, medicine.getTherapeuticCategory());
+        ps.setString(index++, medicine.getDrugCategory());
+        ps.setString(index++, medicine.getDrugLicenseNumber());
+        ps.setString(index++, medicine.getStorageInstructions());
+        ps.setString(index++, medicine.getContraindications());
+        ps.setString(index++, medicine.getSideEffects());
+        ps.setString(index++, medicine.getUsageInstructions());
+        ps.setString(index++, medicine.getDosageInstructions());
+        ps.setString(index++, medicine.getAgeRestrictions());
+        ps.setString(index++, medicine.getPregnancyCategory());
+        ps.setString(index++, medicine.getImageUrls());
+        ps.setString(index++, medicine.getTags());
+        ps.setString(index++, medicine.getStatus().name());
+        ps.setBoolean(index++, medicine.getIsFeatured());
+        ps.setString(index++, medicine.getSearchKeywords());
+        ps.setInt(index++, medicine.getMinOrderQuantity());
+        ps.setInt(index++, medicine.getMaxOrderQuantity());
+        ps.setInt(index++, medicine.getStockQuantity());
+        ps.setObject(index++, medicine.getExpiryDate());
+        ps.setString(index++, medicine.getBatchNumber());
+        ps.setObject(index++, medicine.getCreatedAt());
+        ps.setObject(index, medicine.getUpdatedAt());
+    }
+
+    private static long positionOf(FileInputStream in) {
+        try {
+            return in != null ? in.getChannel().position() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static final class PendingRow {
+        private final long row;
+        private final Medicine medicine;
+
+        private PendingRow(long row, Medicine medicine) {
+            this.row = row;
+            this.medicine = medicine;
+        }
+    }
+
+    // Written by the worker thread only, read by status requests
+    private static final class ImportJob {
+        private final String jobId;
+        private final Format format;
+        private final long sizeBytes;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final List<MedicineImportStatus.RowError> errors = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile Status status = Status.QUEUED;
+        private volatile FileInputStream input;
+        private volatile long bytesRead;
+        private volatile long rowsProcessed;
+        private volatile long imported;
+        private volatile long duplicates;
+        private volatile long failed;
+        private volatile boolean errorsTruncated;
+        private volatile String failureMessage;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String jobId, Format format, long sizeBytes) {
+            this.jobId = jobId;
+            this.format = format;
+            this.sizeBytes = sizeBytes;
+        }
+
+        private void addError(long row, String message, int maxErrors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new MedicineImportStatus.RowError(row, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        private MedicineImportStatus toStatus() {
+            MedicineImportStatus status = new MedicineImportStatus();
+            status.setJobId(jobId);
+            status.setFormat(format.name());
+            status.setStatus(this.status.name());
+            status.setSizeBytes(sizeBytes);
+            status.setBytesRead(bytesRead);
+            status.setRowsProcessed(rowsProcessed);
+            status.setImported(imported);
+            status.setDuplicates(duplicates);
+            status.setFailed(failed);
+            synchronized (errors) {
+                status.setErrors(new ArrayList<>(errors));
+            }
+            status.setErrorsTruncated(errorsTruncated);
+            status.setFailureMessage(failureMessage);
+            status.setCreatedAt(createdAt);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            return status;
+        }
+    }
+}
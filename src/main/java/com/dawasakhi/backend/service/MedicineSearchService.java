@@ -0,0 +1,302 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.dto.response.CursorPage;
+import com.dawasakhi.backend.dto.response.MedicineCard;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.exception.ValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+@Service
+@Transactional(readOnly = true)
+public class MedicineSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicineSearchService.class);
+
+    public static final String SORT_RELEVANCE = "relevance";
+
+    // Sortable entity properties mapped to their medicines column for native queries
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+        "genericName", "generic_name",
+        "brandName", "brand_name",
+        "manufacturer", "manufacturer",
+        "mrp", "mrp",
+        "sellingPrice", "selling_price",
+        "createdAt", "created_at",
+        "isFeatured", "is_featured"
+    );
+
+    // Columns of MedicineCard.PROPERTIES
+    private static final String CARD_COLUMNS = "m.medicine_id, m.generic_name, m.brand_name, m.strength, " +
+        "m.medicine_form, m.mrp, m.selling_price, m.discount_percentage, m.prescription_required, m.image_urls";
+
+    private static final int CARD_COLUMN_COUNT = MedicineCard.PROPERTIES.size();
+
+    private static final String MATCH_CONDITION = "m.status = 'ACTIVE' AND " +
+        "(m.search_vector @@ to_tsquery('simple', :tsQuery) OR " +
+        "lower(m.generic_name) % lower(:searchTerm) OR " +
+        "lower(m.brand_name) % lower(:searchTerm))";
+
+    private static final String SCORE_EXPRESSION = "(ts_rank_cd(m.search_vector, to_tsquery('simple', :tsQuery)) + " +
+        "GREATEST(similarity(lower(m.generic_name), lower(:searchTerm)), " +
+        "similarity(lower(coalesce(m.brand_name, '')), lower(:searchTerm))))";
+
+    // Same match as MedicineRepository.searchCardsByNameOrComposition, for when full-text is off
+    private static final String LIKE_CONDITION = "m.status = 'ACTIVE' AND " +
+        "(lower(m.generic_name) LIKE :pattern OR lower(m.brand_name) LIKE :pattern OR lower(m.composition) LIKE :pattern)";
+
+    // GROUPING() bit masks of the four grouping sets below, first argument is the high bit
+    public static final int FACET_CATEGORY = 0b0111;
+    public static final int FACET_FORM = 0b1011;
+    public static final int FACET_MANUFACTURER = 0b1101;
+    public static final int FACET_PRESCRIPTION = 0b1110;
+
+    private static final String FACET_SELECT = "SELECT m.therapeutic_category, m.medicine_form, m.manufacturer, " +
+        "m.prescription_required, COUNT(*), " +
+        "GROUPING(m.therapeutic_category, m.medicine_form, m.manufacturer, m.prescription_required) " +
+        "FROM medicines m WHERE ";
+
+    private static final String FACET_GROUPING = " GROUP BY GROUPING SETS ((m.therapeutic_category), " +
+        "(m.medicine_form), (m.manufacturer), (m.prescription_required))";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${search.full-text.enabled:true}")
+    private boolean fullTextEnabled;
+
+    private volatile boolean available = false;
+
+    // DDL must not run on the class-level read-only transaction's connection
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void initializeSearchIndex() {
+        if (!fullTextEnabled) {
+            logger.info("Full-text medicine search disabled, using LIKE search");
+            return;
+        }
+
+        try {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/medicine-search.sql"));
+            populator.execute(dataSource);
+            available = true;
+            logger.info("Full-text medicine search index initialized");
+        } catch (Exception e) {
+            logger.error("Failed to initialize full-text medicine search, falling back to LIKE search: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return fullTextEnabled && available;
+    }
+
+    public Page<MedicineCard> search(String searchTerm, int page, int size, String sortBy, String sortDir) {
+        Pageable pageable = PageRequest.of(page, size);
+        String tsQuery = buildPrefixQuery(searchTerm);
+        if (tsQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<SeekKey> keys = orderKeys(sortBy, sortDir);
+        String sql = buildSelect(keys, null) + " LIMIT " + size + " OFFSET " + pageable.getOffset();
+        List<MedicineCard> content = toCards(createQuery(sql, tsQuery, searchTerm, List.of()).getResultList(), size);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> ((Number) entityManager
+            .createNativeQuery("SELECT COUNT(*) FROM medicines m WHERE " + MATCH_CONDITION)
+            .setParameter("tsQuery", tsQuery)
+            .setParameter("searchTerm", searchTerm)
+            .getSingleResult()).longValue());
+    }
+
+    // Counts per category, form, manufacturer and prescription flag over the medicines matching
+    // searchTerm, in a single scan. Rows are (category, form, manufacturer, prescriptionRequired,
+    // count, grouping); grouping is FACET_* and tells which of the first four columns the row counts.
+    public List<Object[]> facetCounts(String searchTerm) {
+        Query query;
+        if (isEnabled()) {
+            String tsQuery = buildPrefixQuery(searchTerm);
+            if (tsQuery.isEmpty()) {
+                return List.of();
+            }
+            query = entityManager.createNativeQuery(FACET_SELECT + MATCH_CONDITION + FACET_GROUPING)
+                .setParameter("tsQuery", tsQuery)
+                .setParameter("searchTerm", searchTerm);
+        } else {
+            query = entityManager.createNativeQuery(FACET_SELECT + LIKE_CONDITION + FACET_GROUPING)
+                .setParameter("pattern", "%" + searchTerm.toLowerCase(Locale.ROOT) + "%");
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            rows.add((Object[]) row);
+        }
+        return rows;
+    }
+
+    // Keyset variant of search. The sort key values of each row are selected after the card columns,
+    // so for relevance the cursor carries the score of the last row as well.
+    public CursorPage<MedicineCard> scroll(String searchTerm, MedicineCursor position, int size, String sortBy, String sortDir) {
+        String tsQuery = buildPrefixQuery(searchTerm);
+        if (tsQuery.isEmpty()) {
+            return new CursorPage<>(List.of(), size, false, null);
+        }
+
+        List<SeekKey> keys = orderKeys(sortBy, sortDir);
+        List<Object> seekValues = new ArrayList<>();
+        String seek = null;
+        if (position != null) {
+            if (position.size() != keys.size()) {
+                throw new ValidationException("Invalid cursor", "INVALID_CURSOR");
+            }
+            seek = buildSeekCondition(keys, position, seekValues);
+        }
+        String sql = buildSelect(keys, seek) + " LIMIT " + (size + 1);
+        List<?> rows = createQuery(sql, tsQuery, searchTerm, seekValues).getResultList();
+
+        List<MedicineCard> content = toCards(rows, size);
+        if (rows.size() <= size) {
+            return new CursorPage<>(content, size, false, null);
+        }
+        Object[] last = (Object[]) rows.get(size - 1);
+        List<Object> lastKeys = Arrays.asList(last).subList(CARD_COLUMN_COUNT, CARD_COLUMN_COUNT + keys.size());
+
+        return new CursorPage<>(content, size, true, MedicineCursor.of(sortBy, sortDir, lastKeys).encode());
+    }
+
+    // Relevance: score, featured first, then id; a sortable column: that column, then id
+    private List<SeekKey> orderKeys(String sortBy, String sortDir) {
+        String column = SORT_COLUMNS.get(sortBy);
+        List<SeekKey> keys = new ArrayList<>();
+        if (sortBy == null || SORT_RELEVANCE.equalsIgnoreCase(sortBy) || column == null) {
+            keys.add(new SeekKey(SCORE_EXPRESSION, true, Float.class, true));
+            keys.add(new SeekKey("m.is_featured", true, Boolean.class, false));
+        } else {
+            SingularAttribute<? super Medicine, ?> attribute =
+                entityManager.getMetamodel().entity(Medicine.class).getSingularAttribute(sortBy);
+            keys.add(new SeekKey("m." + column, "desc".equalsIgnoreCase(sortDir), attribute.getJavaType(), attribute.isOptional()));
+        }
+        keys.add(new SeekKey("m.medicine_id", false, Long.class, false));
+        return keys;
+    }
+
+    // Card columns, then the sort key values, of matching rows in key order
+    private static String buildSelect(List<SeekKey> keys, String seekCondition) {
+        StringJoiner select = new StringJoiner(", ", "SELECT " + CARD_COLUMNS + ", ", "");
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (SeekKey key : keys) {
+            select.add(key.expression);
+            orderBy.add(key.expression + (key.descending ? " DESC" : " ASC"));
+        }
+
+        StringBuilder sql = new StringBuilder(select.toString())
+            .append(" FROM medicines m WHERE ").append(MATCH_CONDITION);
+        if (seekCondition != null) {
+            sql.append(" AND ").append(seekCondition);
+        }
+        return sql.append(orderBy).toString();
+    }
+
+    private Query createQuery(String sql, String tsQuery, String searchTerm, List<Object> seekValues) {
+        Query query = entityManager.createNativeQuery(sql)
+            .setParameter("tsQuery", tsQuery)
+            .setParameter("searchTerm", searchTerm);
+        for (int i = 0; i < seekValues.size(); i++) {
+            query.setParameter("k" + i, seekValues.get(i));
+        }
+        return query;
+    }
+
+    private static List<MedicineCard> toCards(List<?> rows, int limit) {
+        List<MedicineCard> cards = new ArrayList<>(Math.min(rows.size(), limit));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            Object[] row = (Object[]) rows.get(i);
+            row[4] = Medicine.MedicineForm.valueOf((String) row[4]);
+            cards.add(MedicineCard.fromRow(row));
+        }
+        return cards;
+    }
+
+    // Same conditions as MedicineSpecifications.seekAfter: NULL is the largest value, and the OR chain
+    // is AND-ed with a bound on the first key that an index on it can seek to
+    private static String buildSeekCondition(List<SeekKey> keys, MedicineCursor position, List<Object> values) {
+        String after = null;
+        String bound = null;
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            SeekKey key = keys.get(i);
+            Object value = position.valueAt(i, key.type);
+            String beyond;
+            String equal;
+            if (value == null) {
+                beyond = key.descending ? key.expression + " IS NOT NULL" : "FALSE";
+                equal = key.expression + " IS NULL";
+                bound = key.descending ? null : equal;
+            } else {
+                String parameter = ":k" + values.size();
+                values.add(value);
+                String orNull = key.nullable ? " OR " + key.expression + " IS NULL" : "";
+                beyond = key.descending ?
+                    key.expression + " < " + parameter :
+                    "(" + key.expression + " > " + parameter + orNull + ")";
+                equal = key.expression + " = " + parameter;
+                bound = key.descending ?
+                    key.expression + " <= " + parameter :
+                    "(" + key.expression + " >= " + parameter + orNull + ")";
+            }
+            after = after == null ? beyond : "(" + beyond + " OR (" + equal + " AND " + after + "))";
+        }
+        return bound == null ? after : bound + " AND " + after;
+    }
+
+    private static final class SeekKey {
+        private final String expression;
+        private final boolean descending;
+        private final Class<?> type;
+        private final boolean nullable;
+
+        private SeekKey(String expression, boolean descending, Class<?> type, boolean nullable) {
+            this.expression = expression;
+            this.descending = descending;
+            this.type = type;
+            this.nullable = nullable;
+        }
+    }
+
+    // "crocin adv" -> "crocin:* & adv:*" so partially typed words still match
+    static String buildPrefixQuery(String searchTerm) {
+        StringJoiner joiner = new StringJoiner(" & ");
+        for (String token : searchTerm.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                joiner.add(token + ":*");
+            }
+        }
+        return joiner.toString();
+    }
+}
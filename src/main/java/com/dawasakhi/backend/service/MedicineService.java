@@ -1,20 +1,40 @@
 package com.dawasakhi.backend.service;
 
+import com.dawasakhi.backend.dto.response.CursorPage;
+import com.dawasakhi.backend.dto.response.MedicineCard;
+import com.dawasakhi.backend.dto.response.MedicineFacets;
 import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.entity.SearchHistory;
+import com.dawasakhi.backend.event.MedicineChangedEvent;
 import com.dawasakhi.backend.exception.ResourceNotFoundException;
+import com.dawasakhi.backend.exception.ValidationException;
 import com.dawasakhi.backend.repository.MedicineRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -22,40 +42,89 @@ public class MedicineService {
 
     private static final Logger logger = LoggerFactory.getLogger(MedicineService.class);
 
+    public static final int MAX_SCROLL_SIZE = 100;
+
     @Autowired
     private MedicineRepository medicineRepository;
 
+    @Autowired
+    private MedicineSearchService medicineSearchService;
+
+    @Autowired
+    private MedicineCacheService medicineCacheService;
+
+    @Autowired
+    private MedicineFacetService medicineFacetService;
+
+    @Autowired
+    private SearchHistoryService searchHistoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public Medicine getMedicineById(Long medicineId) {
         return medicineRepository.findById(medicineId)
             .orElseThrow(() -> new ResourceNotFoundException("Medicine not found with id: " + medicineId, "MEDICINE_NOT_FOUND"));
     }
 
-    public Page<Medicine> searchMedicines(String searchTerm, int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+    // Read-only view served from the L1/L2 cache; use getMedicineById for entities that will be modified.
+    // No transaction here so cache hits never check out a database connection.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Medicine getMedicineDetails(Long medicineId) {
+        return medicineCacheService.get(medicineId, this::getMedicineById);
+    }
+
+    public Page<MedicineCard> searchMedicines(String searchTerm, int page, int size, String sortBy, String sortDir) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return findMedicineCards(null, page, size, sortBy, sortDir);
+        }
+
+        Page<MedicineCard> results = findMedicineCards(searchTerm.trim(), page, size, sortBy, sortDir);
+        // Later pages of the same results are not new searches
+        if (page == 0) {
+            searchHistoryService.recordSearch(searchTerm, SearchHistory.SearchType.MEDICINE, results.getTotalElements());
+        }
+        return results;
+    }
+
+    private Page<MedicineCard> findMedicineCards(String searchTerm, int page, int size, String sortBy, String sortDir) {
+        if (searchTerm != null && medicineSearchService.isEnabled()) {
+            return medicineSearchService.search(searchTerm, page, size, sortBy, sortDir);
+        }
+
+        Sort sort;
+        if (MedicineSearchService.SORT_RELEVANCE.equalsIgnoreCase(sortBy)) {
+            sort = Sort.by("isFeatured").descending().and(Sort.by("createdAt").descending());
+        } else {
+            sort = sortDir.equalsIgnoreCase("desc") ? 
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        }
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            return medicineRepository.searchByNameOrComposition(searchTerm.trim(), pageable);
+        if (searchTerm != null) {
+            return medicineRepository.searchCardsByNameOrComposition(searchTerm, pageable);
         }
         
-        return medicineRepository.findByStatus(Medicine.MedicineStatus.ACTIVE, pageable);
+        return medicineRepository.findCardsByStatus(Medicine.MedicineStatus.ACTIVE, pageable);
     }
 
-    public Page<Medicine> getMedicinesByCategory(String category, int page, int size, String sortBy, String sortDir) {
+    public Page<MedicineCard> getMedicinesByCategory(String category, int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        return medicineRepository.findByTherapeuticCategoryAndStatus(category, Medicine.MedicineStatus.ACTIVE, pageable);
+        return medicineRepository.findCardsByCategoryAndStatus(category, Medicine.MedicineStatus.ACTIVE, pageable);
     }
 
-    public Page<Medicine> getFeaturedMedicines(int page, int size) {
+    public Page<MedicineCard> getFeaturedMedicines(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         
-        return medicineRepository.findByIsFeaturedAndStatus(true, Medicine.MedicineStatus.ACTIVE, pageable);
+        return medicineRepository.findCardsByFeaturedAndStatus(true, Medicine.MedicineStatus.ACTIVE, pageable);
     }
 
     public List<Medicine> getMedicinesByIds(List<Long> medicineIds) {
@@ -68,6 +137,7 @@ public class MedicineService {
         medicine.setUpdatedAt(LocalDateTime.now());
         
         Medicine savedMedicine = medicineRepository.save(medicine);
+        eventPublisher.publishEvent(new MedicineChangedEvent(savedMedicine, MedicineChangedEvent.ChangeType.CREATED));
         logger.info("Medicine created: {}", savedMedicine.getGenericName());
         
         return savedMedicine;
@@ -113,17 +183,33 @@ public class MedicineService {
         
         medicine.setUpdatedAt(LocalDateTime.now());
         Medicine savedMedicine = medicineRepository.save(medicine);
+        eventPublisher.publishEvent(new MedicineChangedEvent(savedMedicine, MedicineChangedEvent.ChangeType.UPDATED));
         
         logger.info("Medicine updated: {}", savedMedicine.getGenericName());
         return savedMedicine;
     }
 
+    // Restock or correction: a positive adjustment adds units, a negative one removes them. Orders
+    // reserve stock through MedicineRepository.reserveStock, so this never overwrites their updates.
+    public Integer adjustStock(Long medicineId, int adjustment) {
+        if (medicineRepository.adjustStock(medicineId, adjustment) == 0) {
+            getMedicineById(medicineId);
+            throw new ValidationException("Stock adjustment would take stock below zero", "INVALID_STOCK_ADJUSTMENT");
+        }
+
+        Medicine medicine = getMedicineById(medicineId);
+        eventPublisher.publishEvent(new MedicineChangedEvent(medicine, MedicineChangedEvent.ChangeType.STOCK));
+        logger.info("Stock of medicine {} adjusted by {} to {}", medicineId, adjustment, medicine.getStockQuantity());
+        return medicine.getStockQuantity();
+    }
+
     public void deleteMedicine(Long medicineId) {
         Medicine medicine = getMedicineById(medicineId);
         medicine.setStatus(Medicine.MedicineStatus.DISCONTINUED);
         medicine.setUpdatedAt(LocalDateTime.now());
         
         medicineRepository.save(medicine);
+        eventPublisher.publishEvent(new MedicineChangedEvent(medicine, MedicineChangedEvent.ChangeType.DELETED));
         logger.info("Medicine deleted: {}", medicine.getGenericName());
     }
 
@@ -136,11 +222,120 @@ public class MedicineService {
         return medicineRepository.findAll(pageable);
     }
 
+    // Keyset ("scroll") variants of the listings above: seek past the cursor instead of using OFFSET,
+    // and fetch one extra row instead of running a COUNT query
+    @Transactional(readOnly = true)
+    public CursorPage<MedicineCard> scrollMedicines(String searchTerm, String cursor, int size, String sortBy, String sortDir) {
+        validateScrollSize(size);
+        MedicineCursor position = MedicineCursor.decode(cursor, sortBy, sortDir);
+
+        if (searchTerm != null && !searchTerm.trim().isEmpty() && medicineSearchService.isEnabled()) {
+            return medicineSearchService.scroll(searchTerm.trim(), position, size, sortBy, sortDir);
+        }
+
+        Specification<Medicine> filter = MedicineSpecifications.hasStatus(Medicine.MedicineStatus.ACTIVE);
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            filter = filter.and(MedicineSpecifications.nameOrCompositionContains(searchTerm.trim()));
+        }
+        return scroll(filter, position, size, sortBy, sortDir, MedicineService::selectCard, MedicineCard::fromRow);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<MedicineCard> scrollMedicinesByCategory(String category, String cursor, int size, String sortBy, String sortDir) {
+        validateScrollSize(size);
+        Specification<Medicine> filter = MedicineSpecifications.inCategory(category)
+            .and(MedicineSpecifications.hasStatus(Medicine.MedicineStatus.ACTIVE));
+
+        return scroll(filter, MedicineCursor.decode(cursor, sortBy, sortDir), size, sortBy, sortDir,
+            MedicineService::selectCard, MedicineCard::fromRow);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Medicine> scrollAllMedicines(String cursor, int size, String sortBy, String sortDir) {
+        validateScrollSize(size);
+
+        return scroll(Specification.where(null), MedicineCursor.decode(cursor, sortBy, sortDir), size, sortBy, sortDir,
+            List::of, row -> (Medicine) row[0]);
+    }
+
+    // Each row is the requested selection followed by the sort key values, which become the next cursor
+    private <T> CursorPage<T> scroll(Specification<Medicine> filter, MedicineCursor position, int size,
+                                     String sortBy, String sortDir,
+                                     Function<Root<Medicine>, List<? extends Selection<?>>> selection,
+                                     Function<Object[], T> mapper) {
+        List<Sort.Order> orders = keysetOrders(sortBy, sortDir);
+        Specification<Medicine> specification = filter;
+        if (position != null) {
+            if (position.size() != orders.size()) {
+                throw new ValidationException("Invalid cursor", "INVALID_CURSOR");
+            }
+            specification = filter.and(MedicineSpecifications.seekAfter(orders, position));
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Medicine> root = query.from(Medicine.class);
+        List<Selection<?>> selections = new ArrayList<>(selection.apply(root));
+        int keyOffset = selections.size();
+        orders.forEach(order -> selections.add(root.get(order.getProperty())));
+        query.multiselect(selections).orderBy(QueryUtils.toOrders(Sort.by(orders), root, cb));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Object[]> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        List<T> content = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            content.add(mapper.apply(rows.get(i)));
+        }
+        if (rows.size() <= size) {
+            return new CursorPage<>(content, size, false, null);
+        }
+        List<Object> lastKeys = Arrays.asList(rows.get(size - 1)).subList(keyOffset, keyOffset + orders.size());
+
+        return new CursorPage<>(content, size, true, MedicineCursor.of(sortBy, sortDir, lastKeys).encode());
+    }
+
+    private static List<Selection<?>> selectCard(Root<Medicine> root) {
+        List<Selection<?>> selections = new ArrayList<>(MedicineCard.PROPERTIES.size());
+        MedicineCard.PROPERTIES.forEach(property -> selections.add(root.get(property)));
+        return selections;
+    }
+
+    // Sort keys followed by medicineId so every row has a unique position. Relevance is the same
+    // ordering searchMedicines uses without a full-text index.
+    private List<Sort.Order> keysetOrders(String sortBy, String sortDir) {
+        if (MedicineSearchService.SORT_RELEVANCE.equalsIgnoreCase(sortBy)) {
+            return List.of(Sort.Order.desc("isFeatured"), Sort.Order.desc("createdAt"), Sort.Order.desc("medicineId"));
+        }
+        if (!MedicineSearchService.SORT_COLUMNS.containsKey(sortBy)) {
+            throw new ValidationException("Unsupported sort for cursor pagination: " + sortBy, "INVALID_SORT");
+        }
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return List.of(new Sort.Order(direction, sortBy), new Sort.Order(direction, "medicineId"));
+    }
+
+    private void validateScrollSize(int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new ValidationException("Size must be between 1 and " + MAX_SCROLL_SIZE, "INVALID_PAGE_SIZE");
+        }
+    }
+
+    // Served from the in-memory facet counts, so no transaction (and connection) for these
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> getMedicineCategories() {
-        return medicineRepository.findDistinctTherapeuticCategories();
+        return medicineFacetService.getCategories();
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> getMedicineManufacturers() {
-        return medicineRepository.findDistinctManufacturers();
+        return medicineFacetService.getManufacturers();
+    }
+
+    @Transactional(readOnly = true)
+    public MedicineFacets getMedicineFacets(String searchTerm) {
+        return medicineFacetService.getFacets(searchTerm);
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.entity.Medicine;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public final class MedicineSpecifications {
+
+    private MedicineSpecifications() {
+    }
+
+    public static Specification<Medicine> hasStatus(Medicine.MedicineStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Medicine> inCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("therapeuticCategory"), category);
+    }
+
+    // Same matching as MedicineRepository.searchByNameOrComposition
+    public static Specification<Medicine> nameOrCompositionContains(String searchTerm) {
+        return (root, query, cb) -> {
+            String pattern = "%" + searchTerm.toLowerCase() + "%";
+            return cb.or(
+                cb.like(cb.lower(root.get("genericName")), pattern),
+                cb.like(cb.lower(root.get("brandName")), pattern),
+                cb.like(cb.lower(root.get("composition")), pattern));
+        };
+    }
+
+    // Rows strictly after the cursor in the given order, i.e. the lexicographic comparison
+    // (k1, k2, ..., medicineId) > (v1, v2, ..., id) with a per-key direction. NULLs compare as the
+    // largest value, which is PostgreSQL's default ordering (NULLS LAST ascending, FIRST descending).
+    // The OR chain cannot start an index range by itself, so it is AND-ed with the redundant bound
+    // k1 >= v1 (k1 <= v1 descending) that an index on k1 can seek to.
+    public static Specification<Medicine> seekAfter(List<Sort.Order> orders, MedicineCursor cursor) {
+        return (root, query, cb) -> {
+            Predicate after = null;
+            for (int i = orders.size() - 1; i >= 0; i--) {
+                Sort.Order order = orders.get(i);
+                Path<?> path = root.get(order.getProperty());
+                Object value = cursor.valueAt(i, path.getJavaType());
+                boolean nullable = root.getModel().getSingularAttribute(order.getProperty()).isOptional();
+
+                Predicate beyond = beyond(cb, path, value, order.isDescending(), nullable);
+                after = after == null ? beyond : cb.or(beyond, cb.and(equalTo(cb, path, value), after));
+            }
+
+            Sort.Order first = orders.get(0);
+            Path<?> path = root.get(first.getProperty());
+            Predicate bound = leadingBound(cb, path, cursor.valueAt(0, path.getJavaType()), first.isDescending(),
+                root.getModel().getSingularAttribute(first.getProperty()).isOptional());
+            return bound == null ? after : cb.and(bound, after);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Path<?> path, Object value, boolean descending, boolean nullable) {
+        Expression<Comparable> key = (Expression<Comparable>) path;
+        if (value == null) {
+            return descending ? cb.isNotNull(key) : cb.disjunction();
+        }
+        if (descending) {
+            return cb.lessThan(key, (Comparable) value);
+        }
+        return nullable ? cb.or(cb.greaterThan(key, (Comparable) value), cb.isNull(key)) : cb.greaterThan(key, (Comparable) value);
+    }
+
+    // Every row after the cursor has a first key at or beyond the cursor's; null when that is all rows.
+    // Ascending from a value, the NULLs at the end still qualify, which keeps a nullable key from being
+    // a single range.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate leadingBound(CriteriaBuilder cb, Path<?> path, Object value, boolean descending, boolean nullable) {
+        Expression<Comparable> key = (Expression<Comparable>) path;
+        if (value == null) {
+            return descending ? null : cb.isNull(key);
+        }
+        if (descending) {
+            return cb.lessThanOrEqualTo(key, (Comparable) value);
+        }
+        Predicate atOrAfter = cb.greaterThanOrEqualTo(key, (Comparable) value);
+        return nullable ? cb.or(atOrAfter, cb.isNull(key)) : atOrAfter;
+    }
+
+    private static Predicate equalTo(CriteriaBuilder cb, Path<?> path, Object value) {
+        return value == null ? cb.isNull(path) : cb.equal(path, value);
+    }
+}
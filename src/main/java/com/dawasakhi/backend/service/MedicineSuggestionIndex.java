@@ -0,0 +1,310 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.dto.response.MedicineSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Prefix trie over medicine name and composition tokens. Every node caches the best-scoring
+// ids below it, so a lookup walks prefix.length() nodes and copies at most MAX_SUGGESTIONS ids.
+// Each node ranks up to RANKED_CAPACITY ids, the exact top of its subtree, so removals eat into
+// the backup entries first. Only a list that drops below MAX_SUGGESTIONS while its subtree holds
+// more is refilled, by merging its children's lists rather than walking the subtree.
+public class MedicineSuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int RANKED_CAPACITY = 2 * MAX_SUGGESTIONS;
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private final Node root = new Node();
+    private final Map<Long, IndexedMedicine> medicines = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(MedicineSuggestion suggestion, String composition, long score) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(suggestion.getMedicineId());
+
+            IndexedMedicine indexed = new IndexedMedicine(suggestion, score, buildKeys(suggestion, composition));
+            medicines.put(suggestion.getMedicineId(), indexed);
+
+            Set<Node> path = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String key : indexed.keys) {
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.getOrCreateChild(key.charAt(i));
+                    path.add(node);
+                }
+                node.addTerminal(suggestion.getMedicineId());
+            }
+
+            for (Node node : path) {
+                boolean complete = node.topSize == node.count;
+                node.count++;
+                offerTop(node, suggestion.getMedicineId(), complete);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long medicineId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(medicineId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<MedicineSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.getChild(normalized.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+
+            int count = Math.min(limit, node.topSize);
+            List<MedicineSuggestion> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                suggestions.add(medicines.get(node.top[i]).suggestion);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return medicines.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long medicineId) {
+        IndexedMedicine indexed = medicines.get(medicineId);
+        if (indexed == null) {
+            return;
+        }
+
+        // Deepest nodes first, so a refill merges children that no longer list the medicine
+        Map<Node, Integer> depths = new IdentityHashMap<>();
+        for (String key : indexed.keys) {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.getChild(key.charAt(i));
+                if (node != null) {
+                    depths.put(node, i);
+                }
+            }
+            if (node != null) {
+                node.removeTerminal(medicineId);
+            }
+        }
+        List<Node> path = new ArrayList<>(depths.keySet());
+        path.sort((left, right) -> Integer.compare(depths.get(right), depths.get(left)));
+
+        for (Node node : path) {
+            node.count--;
+            if (node.removeTop(medicineId) && node.topSize < MAX_SUGGESTIONS && node.topSize < node.count) {
+                refill(node);
+            }
+        }
+
+        medicines.remove(medicineId);
+    }
+
+    // Insert into the node's ranked list, keeping only the best RANKED_CAPACITY. Past the end of a list
+    // that does not hold its whole subtree the rank is unknown, so nothing is appended there.
+    private void offerTop(Node node, long medicineId, boolean complete) {
+        if (node.top == null) {
+            node.top = new long[RANKED_CAPACITY];
+        }
+        for (int i = 0; i < node.topSize; i++) {
+            if (node.top[i] == medicineId) {
+                return;
+            }
+        }
+
+        int position = node.topSize;
+        while (position > 0 && compare(medicineId, node.top[position - 1]) < 0) {
+            position--;
+        }
+        if (position >= RANKED_CAPACITY || (position == node.topSize && !complete)) {
+            return;
+        }
+
+        int tail = Math.min(node.topSize, RANKED_CAPACITY - 1) - position;
+        System.arraycopy(node.top, position, node.top, position + 1, tail);
+        node.top[position] = medicineId;
+        node.topSize = Math.min(node.topSize + 1, RANKED_CAPACITY);
+    }
+
+    // The node's best ids are among its own terminals and its children's lists. A child list that
+    // does not hold its whole subtree only vouches for its own length, which caps how much of the
+    // merge is exact; children keep at least MAX_SUGGESTIONS, so the refilled list does too.
+    private void refill(Node node) {
+        Set<Long> candidates = new HashSet<>();
+        if (node.terminals != null) {
+            candidates.addAll(node.terminals);
+        }
+        int exact = RANKED_CAPACITY;
+        for (int i = 0; i < node.childCount; i++) {
+            Node child = node.children[i];
+            for (int j = 0; j < child.topSize; j++) {
+                candidates.add(child.top[j]);
+            }
+            if (child.topSize < child.count) {
+                exact = Math.min(exact, child.topSize);
+            }
+        }
+
+        List<Long> ranked = new ArrayList<>(candidates);
+        ranked.sort(this::compare);
+
+        node.topSize = 0;
+        for (int i = 0; i < ranked.size() && i < exact; i++) {
+            node.top[node.topSize++] = ranked.get(i);
+        }
+    }
+
+    // Higher score first, then lower id for a stable order
+    private int compare(long left, long right) {
+        int byScore = Long.compare(medicines.get(right).score, medicines.get(left).score);
+        return byScore != 0 ? byScore : Long.compare(left, right);
+    }
+
+    private static Set<String> buildKeys(MedicineSuggestion suggestion, String composition) {
+        Set<String> keys = new LinkedHashSet<>();
+        addNameKeys(keys, suggestion.getGenericName());
+        addNameKeys(keys, suggestion.getBrandName());
+        addTokens(keys, composition);
+        return keys;
+    }
+
+    private static void addNameKeys(Set<String> keys, String name) {
+        String normalized = normalize(name);
+        if (normalized.length() >= MIN_TOKEN_LENGTH) {
+            keys.add(normalized);
+        }
+        addTokens(keys, normalized);
+    }
+
+    private static void addTokens(Set<String> keys, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                keys.add(token);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static final class IndexedMedicine {
+        private final MedicineSuggestion suggestion;
+        private final long score;
+        private final Set<String> keys;
+
+        private IndexedMedicine(MedicineSuggestion suggestion, long score, Set<String> keys) {
+            this.suggestion = suggestion;
+            this.score = score;
+            this.keys = keys;
+        }
+    }
+
+    // Children are kept in parallel arrays sorted by label instead of a HashMap per node
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        private long[] top;
+        private int topSize;
+        // Medicines with a key through this node; the ranked list is complete when it holds all of them
+        private int count;
+        private Set<Long> terminals;
+
+        private Node getChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node getOrCreateChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+
+            Node child = new Node();
+            labels[insertAt] = label;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        private void addTerminal(long medicineId) {
+            if (terminals == null) {
+                terminals = new HashSet<>(2);
+            }
+            terminals.add(medicineId);
+        }
+
+        private void removeTerminal(long medicineId) {
+            if (terminals != null && terminals.remove(medicineId) && terminals.isEmpty()) {
+                terminals = null;
+            }
+        }
+
+        private boolean removeTop(long medicineId) {
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == medicineId) {
+                    System.arraycopy(top, i + 1, top, i, topSize - i - 1);
+                    topSize--;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.dto.response.MedicineSuggestion;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.event.MedicineChangedEvent;
+import com.dawasakhi.backend.event.MedicinesImportedEvent;
+import com.dawasakhi.backend.repository.MedicineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class MedicineSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicineSuggestionService.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final long FEATURED_BOOST = 1L << 40;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    private volatile MedicineSuggestionIndex index = new MedicineSuggestionIndex();
+    private volatile Map<Long, Long> popularity = Collections.emptyMap();
+
+    // One rebuild at a time, so each knows the changes it has to replay
+    private final Object rebuildLock = new Object();
+
+    // Changes seen while a rebuild reads the catalogue, replayed into it before the swap; guarded by this
+    private List<MedicineChangedEvent> changesDuringRebuild;
+
+    // Bulk imports skip the per-medicine events, so they trigger a full rebuild
+    @EventListener({ApplicationReadyEvent.class, MedicinesImportedEvent.class})
+    public void rebuildIndex() {
+        synchronized (rebuildLock) {
+            try {
+                rebuild();
+            } finally {
+                // Also after a failed rebuild, which must not keep collecting changes
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Map<Long, Long> orderedQuantities = new HashMap<>();
+        for (Object[] row : medicineRepository.findOrderedQuantityByMedicine()) {
+            orderedQuantities.put((Long) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+        popularity = orderedQuantities;
+
+        // Build off to the side and swap, so lookups keep hitting the old index meanwhile
+        MedicineSuggestionIndex rebuilt = new MedicineSuggestionIndex();
+        int page = 0;
+        Page<Medicine> batch;
+        do {
+            batch = medicineRepository.findByStatus(Medicine.MedicineStatus.ACTIVE,
+                PageRequest.of(page++, REBUILD_BATCH_SIZE, Sort.by("medicineId")));
+            for (Medicine medicine : batch) {
+                rebuilt.put(toSuggestion(medicine), medicine.getComposition(), score(medicine));
+            }
+        } while (batch.hasNext());
+
+        // A change committed after its medicine's batch was read would otherwise be lost in the swap
+        synchronized (this) {
+            changesDuringRebuild.forEach(event -> apply(rebuilt, event));
+            index = rebuilt;
+        }
+        logger.info("Medicine suggestion index built with {} medicines in {} ms",
+            rebuilt.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<MedicineSuggestion> suggest(String query, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MedicineSuggestionIndex.MAX_SUGGESTIONS));
+        return index.suggest(query, boundedLimit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        if (event.getChangeType() == MedicineChangedEvent.ChangeType.STOCK) {
+            return;
+        }
+        synchronized (this) {
+            apply(index, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        }
+    }
+
+    private void apply(MedicineSuggestionIndex target, MedicineChangedEvent event) {
+        Medicine medicine = event.getMedicine();
+        if (event.getChangeType() == MedicineChangedEvent.ChangeType.DELETED || !medicine.isActive()) {
+            target.remove(medicine.getMedicineId());
+        } else {
+            target.put(toSuggestion(medicine), medicine.getComposition(), score(medicine));
+        }
+    }
+
+    private long score(Medicine medicine) {
+        long score = popularity.getOrDefault(medicine.getMedicineId(), 0L);
+        if (Boolean.TRUE.equals(medicine.getIsFeatured())) {
+            score += FEATURED_BOOST;
+        }
+        return score;
+    }
+
+    private MedicineSuggestion toSuggestion(Medicine medicine) {
+        return new MedicineSuggestion(
+            medicine.getMedicineId(),
+            medicine.getGenericName(),
+            medicine.getBrandName(),
+            medicine.getStrength(),
+            Boolean.TRUE.equals(medicine.getIsFeatured())
+        );
+    }
+}
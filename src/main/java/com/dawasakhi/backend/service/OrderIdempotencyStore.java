@@ -0,0 +1,114 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.config.AppConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// One Redis string per user and Idempotency-Key, holding "<state>:<request fingerprint>". The first
+// submission claims the key with SET NX while it is placed; the state then becomes the order id so
+// retries get the same order back. A pending claim expires on its own if its instance dies mid-way.
+// This is only the fast path: the order row keeps the key under a unique constraint, which catches
+// retries after the entry expired or while Redis is unreachable, so Redis errors never fail an order.
+@Component
+public class OrderIdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyStore.class);
+
+    public enum ClaimState {
+        CLAIMED,
+        IN_PROGRESS,
+        COMPLETED,
+        KEY_REUSED
+    }
+
+    private static final String PENDING = "pending";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.orders.idempotency.pending-ttl-seconds:60}")
+    private long pendingTtlSeconds;
+
+    @Value("${app.orders.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    public Claim claim(Long userId, String idempotencyKey, String fingerprint) {
+        try {
+            return claimInRedis(userId, idempotencyKey, fingerprint);
+        } catch (RuntimeException e) {
+            logger.warn("Idempotency-Key of user {} checked by the database only, Redis failed: {}", userId, e.getMessage());
+            return new Claim(ClaimState.CLAIMED, null);
+        }
+    }
+
+    private Claim claimInRedis(Long userId, String idempotencyKey, String fingerprint) {
+        String key = buildKey(userId, idempotencyKey);
+        Boolean claimed = stringRedisTemplate.opsForValue()
+                .setIfAbsent(key, PENDING + ":" + fingerprint, Duration.ofSeconds(pendingTtlSeconds));
+        if (Boolean.TRUE.equals(claimed)) {
+            return new Claim(ClaimState.CLAIMED, null);
+        }
+
+        String existing = stringRedisTemplate.opsForValue().get(key);
+        if (existing == null) {
+            // Expired or released between the two calls
+            return claimInRedis(userId, idempotencyKey, fingerprint);
+        }
+        int separator = existing.indexOf(':');
+        if (!existing.substring(separator + 1).equals(fingerprint)) {
+            return new Claim(ClaimState.KEY_REUSED, null);
+        }
+        String state = existing.substring(0, separator);
+        if (PENDING.equals(state)) {
+            return new Claim(ClaimState.IN_PROGRESS, null);
+        }
+        return new Claim(ClaimState.COMPLETED, Long.valueOf(state));
+    }
+
+    public void complete(Long userId, String idempotencyKey, String fingerprint, Long orderId) {
+        try {
+            stringRedisTemplate.opsForValue().set(buildKey(userId, idempotencyKey),
+                    orderId + ":" + fingerprint, Duration.ofHours(ttlHours));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to record order {} for its Idempotency-Key in Redis: {}", orderId, e.getMessage());
+        }
+    }
+
+    // Failed submissions give the key back so the client can retry with it
+    public void release(Long userId, String idempotencyKey) {
+        try {
+            stringRedisTemplate.delete(buildKey(userId, idempotencyKey));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release Idempotency-Key of user {} in Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    private String buildKey(Long userId, String idempotencyKey) {
+        return AppConstants.CACHE_ORDER_IDEMPOTENCY + userId + ":" + idempotencyKey;
+    }
+
+    public static class Claim {
+        private final ClaimState state;
+        private final Long orderId;
+
+        private Claim(ClaimState state, Long orderId) {
+            this.state = state;
+            this.orderId = orderId;
+        }
+
+        public ClaimState getState() {
+            return state;
+        }
+
+        // Set for COMPLETED claims
+        public Long getOrderId() {
+            return orderId;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.dto.request.CreateOrderRequest;
+import com.dawasakhi.backend.dto.response.OrderResponse;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.entity.Order;
+import com.dawasakhi.backend.entity.OrderItem;
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.entity.UserAddress;
+import com.dawasakhi.backend.event.MedicineChangedEvent;
+import com.dawasakhi.backend.exception.DawaSureException;
+import com.dawasakhi.backend.exception.ResourceNotFoundException;
+import com.dawasakhi.backend.exception.ValidationException;
+import com.dawasakhi.backend.mapper.OrderMapper;
+import com.dawasakhi.backend.repository.MedicineRepository;
+import com.dawasakhi.backend.repository.OrderRepository;
+import com.dawasakhi.backend.repository.UserAddressRepository;
+import com.dawasakhi.backend.repository.UserRepository;
+import com.dawasakhi.backend.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class OrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserAddressRepository userAddressRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private MedicineService medicineService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderIdempotencyStore idempotencyStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Business amounts are configured in paise
+    @Value("${business.delivery.standard-charges:2000}")
+    private long standardDeliveryCharges;
+
+    @Value("${business.delivery.express-charges:5000}")
+    private long expressDeliveryCharges;
+
+    @Value("${business.delivery.free-delivery-threshold:50000}")
+    private long freeDeliveryThreshold;
+
+    @Value("${business.service.fee-percentage:2.0}")
+    private BigDecimal serviceFeePercentage;
+
+    // Not transactional itself: an Idempotency-Key is only marked completed once its order is committed
+    public OrderResponse placeOrder(String phoneNumber, String idempotencyKey, CreateOrderRequest request) {
+        User customer = userRepository.findByPhoneNumber(phoneNumber)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found", "USER_NOT_FOUND"));
+
+        // Same medicine listed twice counts as one line
+        Map<Long, Integer> quantities = request.getItems().stream()
+            .collect(Collectors.toMap(CreateOrderRequest.OrderItemRequest::getMedicineId,
+                CreateOrderRequest.OrderItemRequest::getQuantity, Integer::sum, TreeMap::new));
+
+        if (idempotencyKey == null) {
+            return transactionTemplate.execute(status -> createOrder(customer, null, null, request, quantities));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters",
+                "INVALID_IDEMPOTENCY_KEY");
+        }
+
+        String fingerprint = fingerprint(request, quantities);
+        OrderIdempotencyStore.Claim claim = idempotencyStore.claim(customer.getUserId(), idempotencyKey, fingerprint);
+        switch (claim.getState()) {
+            case COMPLETED -> {
+                logger.info("Order {} returned again for a repeated Idempotency-Key", claim.getOrderId());
+                return getCustomerOrder(customer.getUserId(), claim.getOrderId());
+            }
+            case IN_PROGRESS -> throw new DawaSureException("An order with this Idempotency-Key is still being placed",
+                "IDEMPOTENCY_KEY_IN_PROGRESS", HttpStatus.CONFLICT);
+            case KEY_REUSED -> throw new DawaSureException("Idempotency-Key was already used for a different order",
+                "IDEMPOTENCY_KEY_REUSED", HttpStatus.UNPROCESSABLE_ENTITY);
+            default -> {
+            }
+        }
+
+        OrderResponse response;
+        try {
+            response = transactionTemplate.execute(status ->
+                createOrder(customer, idempotencyKey, fingerprint, request, quantities));
+        } catch (DataIntegrityViolationException e) {
+            // The key is already on an order Redis no longer knew about: that order is the answer if it
+            // was placed for the same request, and the key is refused otherwise, as Redis would have
+            Order existing = transactionTemplate.execute(status -> orderRepository
+                .findByCustomerUserIdAndIdempotencyKey(customer.getUserId(), idempotencyKey)
+                .orElse(null));
+            if (existing == null) {
+                idempotencyStore.release(customer.getUserId(), idempotencyKey);
+                throw e;
+            }
+            if (!fingerprint.equals(existing.getIdempotencyFingerprint())) {
+                // Redis learns the key's real request, so later reuses are refused there again
+                idempotencyStore.complete(customer.getUserId(), idempotencyKey, existing.getIdempotencyFingerprint(),
+                    existing.getOrderId());
+                throw new DawaSureException("Idempotency-Key was already used for a different order",
+                    "IDEMPOTENCY_KEY_REUSED", HttpStatus.UNPROCESSABLE_ENTITY);
+            }
+            response = getCustomerOrder(customer.getUserId(), existing.getOrderId());
+            logger.info("Order {} returned again for a repeated Idempotency-Key", response.getOrderId());
+        } catch (RuntimeException e) {
+            idempotencyStore.release(customer.getUserId(), idempotencyKey);
+            throw e;
+        }
+        idempotencyStore.complete(customer.getUserId(), idempotencyKey, fingerprint, response.getOrderId());
+        return response;
+    }
+
+    // Three queries per page whatever its size: the page of ids, its count, and the orders with their
+    // customer, address, items and medicines
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getOrderHistory(String phoneNumber, int page, int size) {
+        Page<Long> orderIds = orderRepository.findOrderIdsByCustomerPhoneNumber(phoneNumber,
+            PageRequest.of(page, Math.min(size, AppConstants.MAX_PAGE_SIZE)));
+        if (orderIds.isEmpty()) {
+            return new PageImpl<>(List.of(), orderIds.getPageable(), orderIds.getTotalElements());
+        }
+
+        Map<Long, Order> orders = orderRepository.findWithDetailsByOrderIdIn(orderIds.getContent()).stream()
+            .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+        List<Order> ordered = orderIds.getContent().stream().map(orders::get).toList();
+        return new PageImpl<>(orderMapper.toResponses(ordered), orderIds.getPageable(), orderIds.getTotalElements());
+    }
+
+    private OrderResponse createOrder(User customer, String idempotencyKey, String fingerprint,
+                                      CreateOrderRequest request, Map<Long, Integer> quantities) {
+        UserAddress address = userAddressRepository
+            .findByAddressIdAndUserUserIdAndIsActiveTrue(request.getDeliveryAddressId(), customer.getUserId())
+            .orElseThrow(() -> new ResourceNotFoundException("Delivery address not found", "ADDRESS_NOT_FOUND"));
+        Order.DeliveryType deliveryType = parseEnum(Order.DeliveryType.class, request.getDeliveryType(), "INVALID_DELIVERY_TYPE");
+        Order.PaymentMethod paymentMethod = parseEnum(Order.PaymentMethod.class, request.getPaymentMethod(), "INVALID_PAYMENT_METHOD");
+        if (deliveryType == Order.DeliveryType.SCHEDULED &&
+            (request.getScheduledDeliveryTime() == null || request.getScheduledDeliveryTime().isBefore(LocalDateTime.now()))) {
+            throw new ValidationException("Scheduled delivery needs a delivery time in the future", "INVALID_SCHEDULED_TIME");
+        }
+
+        Map<Long, Medicine> medicines = medicineService.getMedicinesByIds(new ArrayList<>(quantities.keySet())).stream()
+            .collect(Collectors.toMap(Medicine::getMedicineId, Function.identity()));
+
+        Order order = new Order(customer, address, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        order.setIdempotencyKey(idempotencyKey);
+        order.setIdempotencyFingerprint(fingerprint);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal taxAmount = BigDecimal.ZERO;
+        boolean prescriptionRequired = false;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Medicine medicine = medicines.get(entry.getKey());
+            if (medicine == null) {
+                throw new ResourceNotFoundException("Medicine not found with id: " + entry.getKey(), "MEDICINE_NOT_FOUND");
+            }
+            validateQuantity(medicine, entry.getValue());
+
+            OrderItem item = new OrderItem(order, medicine, entry.getValue(), medicine.getSellingPrice());
+            order.addItem(item);
+            subtotal = subtotal.add(item.getTotalPrice()).subtract(item.getDiscountAmount());
+            taxAmount = taxAmount.add(item.getTaxAmount());
+            prescriptionRequired |= Boolean.TRUE.equals(medicine.getPrescriptionRequired());
+        }
+
+        BigDecimal deliveryCharges = subtotal.compareTo(BigDecimal.valueOf(freeDeliveryThreshold, 2)) >= 0 ?
+            BigDecimal.ZERO :
+            BigDecimal.valueOf(deliveryType == Order.DeliveryType.EXPRESS ? expressDeliveryCharges : standardDeliveryCharges, 2);
+        BigDecimal serviceCharges = subtotal.multiply(serviceFeePercentage)
+            .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+
+        order.setSubtotal(subtotal.setScale(2, RoundingMode.HALF_UP));
+        order.setTaxAmount(taxAmount.setScale(2, RoundingMode.HALF_UP));
+        order.setDeliveryCharges(deliveryCharges);
+        order.setServiceCharges(serviceCharges);
+        order.setTotalAmount(order.getSubtotal().add(order.getTaxAmount()).add(deliveryCharges).add(serviceCharges));
+        order.setDeliveryType(deliveryType);
+        order.setScheduledDeliveryTime(request.getScheduledDeliveryTime());
+        order.setPaymentMethod(paymentMethod);
+        // Stored for the pharmacy; coupons are not priced in yet
+        order.setCouponCode(request.getCouponCode());
+        order.setSpecialInstructions(request.getSpecialInstructions());
+        order.setPrescriptionRequired(prescriptionRequired);
+
+        // Insert first and reserve last: a reservation holds the medicine's row lock until commit,
+        // so on hot medicines that window should be as short as possible
+        orderRepository.saveAndFlush(order);
+        reserveStock(quantities, medicines);
+
+        logger.info("Order {} placed by user {} with {} items", order.getOrderNumber(), customer.getUserId(), quantities.size());
+        return orderMapper.toResponse(order);
+    }
+
+    private OrderResponse getCustomerOrder(Long customerId, Long orderId) {
+        return transactionTemplate.execute(status -> orderRepository.findByOrderIdAndCustomerUserId(orderId, customerId)
+            .map(orderMapper::toResponse)
+            .orElseThrow(() -> new ResourceNotFoundException("Order not found", "ORDER_NOT_FOUND")));
+    }
+
+    private static void validateQuantity(Medicine medicine, int quantity) {
+        if (!medicine.isActive()) {
+            throw new ValidationException(medicine.getGenericName() + " is not available", "MEDICINE_UNAVAILABLE");
+        }
+        int min = Math.max(1, medicine.getMinOrderQuantity());
+        int max = medicine.getMaxOrderQuantity();
+        if (quantity < min || quantity > max) {
+            throw new ValidationException(String.format("Quantity of %s must be between %d and %d",
+                medicine.getGenericName(), min, max), "INVALID_ORDER_QUANTITY");
+        }
+    }
+
+    // Conditional decrements in medicine id order, so two orders sharing medicines cannot deadlock.
+    // A shortfall throws, which rolls back the order and every reservation made before it. The cached
+    // medicines still hold the old stock, so they are evicted once the order commits.
+    private void reserveStock(Map<Long, Integer> quantities, Map<Long, Medicine> medicines) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (medicineRepository.reserveStock(entry.getKey(), entry.getValue()) == 0) {
+                throw new DawaSureException("Insufficient stock for " + medicines.get(entry.getKey()).getGenericName(),
+                    "INSUFFICIENT_STOCK", HttpStatus.CONFLICT);
+            }
+            eventPublisher.publishEvent(new MedicineChangedEvent(medicines.get(entry.getKey()), MedicineChangedEvent.ChangeType.STOCK));
+        }
+    }
+
+    // Identifies the submission behind an Idempotency-Key, so the key cannot be replayed for a different order
+    private static String fingerprint(CreateOrderRequest request, Map<Long, Integer> quantities) {
+        return JwtUtil.hashToken(String.join("|",
+            String.valueOf(request.getDeliveryAddressId()),
+            quantities.toString(),
+            String.valueOf(request.getDeliveryType()),
+            String.valueOf(request.getScheduledDeliveryTime()),
+            String.valueOf(request.getPaymentMethod()),
+            String.valueOf(request.getCouponCode()),
+            String.valueOf(request.getSpecialInstructions())));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String errorCode) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new ValidationException("Invalid value: " + value, errorCode);
+        }
+    }
+}
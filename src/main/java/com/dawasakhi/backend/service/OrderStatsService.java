@@ -0,0 +1,207 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.dto.response.OrderDashboardStats;
+import com.dawasakhi.backend.exception.DawaSureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard statistics from hourly and daily rollups instead of aggregating orders on every request.
+// A trigger on orders logs each change as deltas (db/order-stats.sql); refresh() folds them into the
+// rollups on a schedule, so figures trail the orders table by at most the refresh interval.
+// backfill() rebuilds the rollups from orders, e.g. after bulk fixes made with the trigger disabled.
+@Service
+public class OrderStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatsService.class);
+
+    // Transaction-level advisory lock held by whoever writes the rollups, across all instances
+    private static final long ROLLUP_LOCK = 4_207_001L;
+
+    private static final String DIMENSIONS = "order_status, payment_status, payment_method, delivery_type";
+
+    private static final String ACCUMULATE =
+        " ON CONFLICT (%s, " + DIMENSIONS + ") DO UPDATE SET " +
+        "order_count = s.order_count + EXCLUDED.order_count, total_amount = s.total_amount + EXCLUDED.total_amount";
+
+    // One statement: deltas committed while it runs stay in the log for the next refresh
+    private static final String FOLD_DELTAS =
+        "WITH moved AS (DELETE FROM order_stats_deltas RETURNING bucket_hour, " + DIMENSIONS + ", order_count, total_amount), " +
+        "hourly AS (INSERT INTO order_hourly_stats AS s (bucket_hour, " + DIMENSIONS + ", order_count, total_amount) " +
+        "  SELECT bucket_hour, " + DIMENSIONS + ", sum(order_count), sum(total_amount) FROM moved " +
+        "  GROUP BY bucket_hour, " + DIMENSIONS + String.format(ACCUMULATE, "bucket_hour") + "), " +
+        "daily AS (INSERT INTO order_daily_stats AS s (bucket_day, " + DIMENSIONS + ", order_count, total_amount) " +
+        "  SELECT CAST(bucket_hour AS date), " + DIMENSIONS + ", sum(order_count), sum(total_amount) FROM moved " +
+        "  GROUP BY CAST(bucket_hour AS date), " + DIMENSIONS + String.format(ACCUMULATE, "bucket_day") + ") " +
+        "SELECT count(*) FROM moved";
+
+    // Orders minus the deltas still waiting in the log, read in one snapshot: the next refresh adds
+    // those deltas back, so changes committed during the rebuild are counted exactly once
+    private static final String REBUILD_HOURLY =
+        "INSERT INTO order_hourly_stats (bucket_hour, " + DIMENSIONS + ", order_count, total_amount) " +
+        "SELECT bucket_hour, " + DIMENSIONS + ", sum(order_count), sum(total_amount) FROM (" +
+        "  SELECT date_trunc('hour', created_at) AS bucket_hour, order_status, payment_status, " +
+        "         coalesce(payment_method, 'NONE') AS payment_method, delivery_type, 1 AS order_count, total_amount " +
+        "  FROM orders " +
+        "  UNION ALL " +
+        "  SELECT bucket_hour, " + DIMENSIONS + ", -order_count, -total_amount FROM order_stats_deltas" +
+        ") changes GROUP BY bucket_hour, " + DIMENSIONS;
+
+    private static final String REBUILD_DAILY =
+        "INSERT INTO order_daily_stats (bucket_day, " + DIMENSIONS + ", order_count, total_amount) " +
+        "SELECT CAST(bucket_hour AS date), " + DIMENSIONS + ", sum(order_count), sum(total_amount) " +
+        "FROM order_hourly_stats GROUP BY CAST(bucket_hour AS date), " + DIMENSIONS;
+
+    private static final String PERIOD_COLUMNS =
+        "sum(order_count) AS orders, " +
+        "coalesce(sum(order_count) FILTER (WHERE order_status = 'DELIVERED'), 0) AS delivered_orders, " +
+        "coalesce(sum(total_amount) FILTER (WHERE order_status = 'DELIVERED' AND payment_status = 'COMPLETED'), 0) AS revenue ";
+
+    private static final RowMapper<OrderDashboardStats.PeriodStats> PERIOD_ROW = (rs, rowNum) ->
+        new OrderDashboardStats.PeriodStats(rs.getTimestamp("period_start").toLocalDateTime(),
+            rs.getLong("orders"), rs.getLong("delivered_orders"), rs.getBigDecimal("revenue"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private volatile boolean available = false;
+
+    // The script is run whole: the trigger function body contains semicolons
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeRollups() {
+        try {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/order-stats.sql"));
+            populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+            populator.execute(dataSource);
+            available = true;
+        } catch (Exception e) {
+            logger.error("Failed to initialize order statistics rollups, dashboard statistics unavailable: {}", e.getMessage());
+            return;
+        }
+
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM order_daily_stats) AND EXISTS (SELECT 1 FROM orders)", Boolean.class))) {
+            backfill();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-stats.refresh-interval-ms}", initialDelayString = "${app.order-stats.refresh-interval-ms}")
+    public void refresh() {
+        if (!available) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // Skipped while another instance refreshes or a backfill runs; the deltas wait for the next run
+        Long folded = transactionTemplate.execute(status -> tryLock() ? jdbcTemplate.queryForObject(FOLD_DELTAS, Long.class) : null);
+        if (folded != null && folded > 0) {
+            logger.debug("Folded {} order statistics deltas in {} ms", folded, System.currentTimeMillis() - start);
+        }
+    }
+
+    public long backfill() {
+        requireAvailable();
+        long start = System.currentTimeMillis();
+        Long buckets = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", ROLLUP_LOCK);
+            jdbcTemplate.update("DELETE FROM order_hourly_stats");
+            jdbcTemplate.update("DELETE FROM order_daily_stats");
+            jdbcTemplate.update(REBUILD_HOURLY);
+            return (long) jdbcTemplate.update(REBUILD_DAILY);
+        });
+        logger.info("Order statistics rollups rebuilt into {} daily buckets in {} ms", buckets, System.currentTimeMillis() - start);
+        return buckets;
+    }
+
+    public OrderDashboardStats getDashboard(int days) {
+        requireAvailable();
+        LocalDate fromDay = LocalDate.now(ZoneOffset.UTC).minusDays(Math.max(days, 1) - 1L);
+
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+            "SELECT coalesce(sum(order_count), 0) AS orders, " +
+            "coalesce(sum(order_count) FILTER (WHERE order_status = 'DELIVERED'), 0) AS delivered_orders, " +
+            "coalesce(sum(total_amount) FILTER (WHERE order_status = 'DELIVERED'), 0) AS delivered_amount, " +
+            "coalesce(sum(total_amount) FILTER (WHERE order_status = 'DELIVERED' AND payment_status = 'COMPLETED'), 0) AS revenue " +
+            "FROM order_daily_stats");
+        long deliveredOrders = ((Number) totals.get("delivered_orders")).longValue();
+
+        Map<String, Long> ordersByStatus = countsBy("order_status", "");
+        Map<String, Long> paymentsByMethod = countsBy("payment_method", "WHERE payment_status = 'COMPLETED' ");
+
+        List<OrderDashboardStats.DeliveryTypeStats> deliveryTypes = jdbcTemplate.query(
+            "SELECT delivery_type, sum(order_count) AS orders, sum(total_amount) AS amount FROM order_daily_stats " +
+            "WHERE order_status = 'DELIVERED' GROUP BY delivery_type HAVING sum(order_count) > 0 ORDER BY delivery_type",
+            (rs, rowNum) -> new OrderDashboardStats.DeliveryTypeStats(rs.getString("delivery_type"),
+                rs.getLong("orders"), average(rs.getBigDecimal("amount"), rs.getLong("orders"))));
+
+        List<OrderDashboardStats.PeriodStats> daily = jdbcTemplate.query(
+            "SELECT CAST(bucket_day AS timestamp) AS period_start, " + PERIOD_COLUMNS +
+            "FROM order_daily_stats WHERE bucket_day >= ? GROUP BY bucket_day ORDER BY bucket_day",
+            PERIOD_ROW, fromDay);
+
+        return new OrderDashboardStats(((Number) totals.get("orders")).longValue(), deliveredOrders,
+            (BigDecimal) totals.get("revenue"), average((BigDecimal) totals.get("delivered_amount"), deliveredOrders),
+            ordersByStatus, paymentsByMethod, deliveryTypes, daily);
+    }
+
+    public List<OrderDashboardStats.PeriodStats> getHourlyStats(LocalDate day) {
+        requireAvailable();
+        LocalDateTime from = day.atStartOfDay();
+        return jdbcTemplate.query(
+            "SELECT bucket_hour AS period_start, " + PERIOD_COLUMNS +
+            "FROM order_hourly_stats WHERE bucket_hour >= ? AND bucket_hour < ? GROUP BY bucket_hour ORDER BY bucket_hour",
+            PERIOD_ROW, from, from.plusDays(1));
+    }
+
+    private Map<String, Long> countsBy(String column, String where) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT " + column + " AS dimension, sum(order_count) AS orders FROM order_daily_stats " + where +
+            "GROUP BY " + column + " HAVING sum(order_count) > 0 ORDER BY " + column,
+            rs -> {
+                counts.put(rs.getString("dimension"), rs.getLong("orders"));
+            });
+        return counts;
+    }
+
+    private static BigDecimal average(BigDecimal amount, long count) {
+        return count == 0 ? BigDecimal.ZERO : amount.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ROLLUP_LOCK));
+    }
+
+    private void requireAvailable() {
+        if (!available) {
+            throw new DawaSureException("Order statistics are unavailable", "ORDER_STATS_UNAVAILABLE",
+                HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
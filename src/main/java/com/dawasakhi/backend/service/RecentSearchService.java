@@ -0,0 +1,136 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.dto.response.RecentSearches;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Each user's recent searches as a capped Redis sorted set of distinct terms, scored by how often and
+// how lately each was searched (redis/recent-search-add.lua). Every search is added as it happens,
+// with one script call on a single background writer, so opening the search box is one read of this
+// set instead of queries against search_history, and searching never waits for Redis.
+@Service
+public class RecentSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentSearchService.class);
+
+    private static final RedisScript<Long> ADD_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/recent-search-add.lua"), Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.recent-searches.capacity:50}")
+    private int capacity;
+
+    @Value("${app.recent-searches.half-life-hours:24}")
+    private long halfLifeHours;
+
+    @Value("${app.recent-searches.ttl-days:90}")
+    private long ttlDays;
+
+    @Value("${app.recent-searches.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor writer;
+    private Counter dropped;
+    private volatile boolean redisAvailable = true;
+
+    @PostConstruct
+    public void start() {
+        dropped = Counter.builder("search.recent.dropped").register(meterRegistry);
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "recent-search-writer");
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, executor) -> dropped.increment());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Fire and forget: the search is dropped when the writer is backed up or Redis fails, since a
+    // recent searches list missing a search is better than a search waiting for Redis
+    public void record(String phoneNumber, String term, LocalDateTime searchedAt) {
+        writer.execute(() -> add(phoneNumber, term, searchedAt));
+    }
+
+    // Both lists come from the same read; suggestions match the query anywhere in the term
+    public RecentSearches getRecentSearches(String phoneNumber, String query, int limit) {
+        int count = Math.min(Math.max(limit, 1), capacity);
+        Set<String> terms = null;
+        try {
+            terms = stringRedisTemplate.opsForZSet().reverseRange(buildKey(phoneNumber), 0, -1);
+        } catch (Exception e) {
+            logger.warn("Error reading recent searches for phone: {} - Error: {}", phoneNumber, e.getMessage());
+        }
+        if (terms == null) {
+            terms = Collections.emptySet();
+        }
+
+        String normalizedQuery = SearchHistoryService.normalize(query);
+        List<String> recent = new ArrayList<>(Math.min(count, terms.size()));
+        List<String> suggestions = new ArrayList<>();
+        for (String term : terms) {
+            if (recent.size() < count) {
+                recent.add(term);
+            }
+            if (!normalizedQuery.isEmpty() && suggestions.size() < count && term.contains(normalizedQuery)) {
+                suggestions.add(term);
+            }
+        }
+        return new RecentSearches(recent, suggestions);
+    }
+
+    private void add(String phoneNumber, String term, LocalDateTime searchedAt) {
+        try {
+            stringRedisTemplate.execute(ADD_SCRIPT, Collections.singletonList(buildKey(phoneNumber)),
+                String.valueOf(TimeUnit.HOURS.toMillis(halfLifeHours)),
+                String.valueOf(capacity),
+                String.valueOf(TimeUnit.DAYS.toSeconds(ttlDays)),
+                term, "1", String.valueOf(searchedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+            if (!redisAvailable) {
+                redisAvailable = true;
+                logger.info("Recent searches are recorded again");
+            }
+        } catch (Exception e) {
+            dropped.increment();
+            if (redisAvailable) {
+                redisAvailable = false;
+                logger.warn("Recent searches are dropped while Redis is unavailable: {}", e.getMessage());
+            }
+        }
+    }
+
+    private String buildKey(String phoneNumber) {
+        return AppConstants.CACHE_RECENT_SEARCHES + phoneNumber;
+    }
+}
@@ -0,0 +1,173 @@
+package com.dawasakhi.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Monthly partitions of search_history (db/search-history-partitions.sql). Partitions are created a
+// few months ahead, since a search dated outside every partition cannot be written, and months past
+// the retention period are detached and dropped as whole tables instead of deleting their rows.
+@Service
+public class SearchHistoryPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchHistoryPartitionService.class);
+
+    // Session-level advisory lock held by whoever maintains the partitions, across all instances
+    private static final long MAINTENANCE_LOCK = 4_207_002L;
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // Upper bound of every partition; null for one without an upper date
+    private static final String LIST_PARTITIONS =
+        "SELECT c.relname, i.inhdetachpending, " +
+        "CAST(substring(pg_get_expr(c.relpartbound, c.oid) FROM 'TO \\(''([0-9-]+)''\\)') AS date) AS upper_bound " +
+        "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+        "WHERE i.inhparent = 'search_history'::regclass ORDER BY upper_bound";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.search-history.partitions-ahead-months:3}")
+    private int partitionsAheadMonths;
+
+    // Whole months kept before the current one
+    @Value("${app.search-history.retention-months:13}")
+    private int retentionMonths;
+
+    private volatile boolean available = false;
+
+    // The script is run whole: the conversion block contains semicolons
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializePartitions() {
+        try {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/search-history-partitions.sql"));
+            populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+            populator.execute(dataSource);
+            available = true;
+        } catch (Exception e) {
+            logger.error("Failed to initialize search history partitioning: {}", e.getMessage());
+            return;
+        }
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${app.search-history.maintenance-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        if (!available) {
+            return;
+        }
+        try {
+            // One connection throughout: the lock belongs to the session, and detaching concurrently
+            // cannot run inside a transaction
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                maintain(connection);
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Search history partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private void maintain(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (!tryLock(statement)) {
+                logger.debug("Search history partitions are being maintained by another instance");
+                return;
+            }
+            try {
+                List<Partition> partitions = listPartitions(statement);
+                LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+                createPartitions(statement, partitions, currentMonth);
+                dropExpiredPartitions(statement, partitions, currentMonth.minusMonths(retentionMonths));
+            } finally {
+                statement.execute("SELECT pg_advisory_unlock(" + MAINTENANCE_LOCK + ")");
+            }
+        }
+    }
+
+    // Months from the end of the last partition (or this month) up to partitionsAheadMonths ahead
+    private void createPartitions(Statement statement, List<Partition> partitions, LocalDate currentMonth) throws SQLException {
+        LocalDate month = currentMonth;
+        for (Partition partition : partitions) {
+            if (partition.upperBound != null && partition.upperBound.isAfter(month)) {
+                month = partition.upperBound;
+            }
+        }
+
+        LocalDate until = currentMonth.plusMonths(partitionsAheadMonths + 1L);
+        for (; month.isBefore(until); month = month.plusMonths(1)) {
+            String name = "search_history_p" + PARTITION_SUFFIX.format(month);
+            statement.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF search_history " +
+                "FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')");
+            logger.info("Created search history partition {}", name);
+        }
+    }
+
+    // Detaching concurrently only briefly locks search_history. A detach interrupted half-way leaves
+    // the partition pending, and the next run finishes it.
+    private void dropExpiredPartitions(Statement statement, List<Partition> partitions, LocalDate cutoff) throws SQLException {
+        for (Partition partition : partitions) {
+            if (partition.upperBound == null || partition.upperBound.isAfter(cutoff)) {
+                continue;
+            }
+            statement.execute("ALTER TABLE search_history DETACH PARTITION " + partition.name +
+                (partition.detachPending ? " FINALIZE" : " CONCURRENTLY"));
+            statement.execute("DROP TABLE " + partition.name);
+            logger.info("Dropped search history partition {} (searches before {})", partition.name, partition.upperBound);
+        }
+    }
+
+    private List<Partition> listPartitions(Statement statement) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery(LIST_PARTITIONS)) {
+            while (rs.next()) {
+                java.sql.Date upperBound = rs.getDate("upper_bound");
+                partitions.add(new Partition(rs.getString("relname"), rs.getBoolean("inhdetachpending"),
+                    upperBound == null ? null : upperBound.toLocalDate()));
+            }
+        }
+        return partitions;
+    }
+
+    private boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT pg_try_advisory_lock(" + MAINTENANCE_LOCK + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static final class Partition {
+
+        private final String name;
+        private final boolean detachPending;
+        private final LocalDate upperBound;
+
+        private Partition(String name, boolean detachPending, LocalDate upperBound) {
+            this.name = name;
+            this.detachPending = detachPending;
+            this.upperBound = upperBound;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.entity.SearchHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Search analytics ingestion. Searches are offered to a bounded buffer and never wait for the
+// database: when the buffer is full the event is dropped and counted. A single flusher drains the
+// buffer once per window, coalesces repeats of the same user, term and day into one searchCount
+// increment, and writes the window as one JDBC batch of upserts. Trending terms (SearchTrendingService)
+// and the user's recent searches (RecentSearchService) are updated as the search happens instead,
+// whether or not it is recorded here. The table itself is an archive for analytics and is not read
+// when serving searches.
+@Service
+public class SearchHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchHistoryService.class);
+
+    public static final int MAX_TERM_LENGTH = 255;
+
+    // Users are resolved by phone number (the authentication name) inside the statement. search_id
+    // takes the highest id of a fresh sequence block, like Hibernate's pooled optimizer, so it never
+    // collides with ids Hibernate hands out; on conflict the id is simply unused.
+    private static final String UPSERT_SQL =
+        "INSERT INTO search_history (search_id, user_id, search_term, search_type, search_date, search_count, " +
+        "result_count, created_at, updated_at) " +
+        "SELECT nextval('search_history_search_id_seq'), u.user_id, ?, ?, ?, ?, ?, ?, ? FROM users u WHERE u.phone_number = ? " +
+        "ON CONFLICT (user_id, search_type, search_term, search_date) DO UPDATE SET " +
+        "search_count = search_history.search_count + EXCLUDED.search_count, " +
+        "result_count = EXCLUDED.result_count, updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SearchTrendingService searchTrendingService;
+
+    @Autowired
+    private RecentSearchService recentSearchService;
+
+    @Value("${app.search-history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search-history.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${app.search-history.flush-interval-ms:2000}")
+    private long flushIntervalMillis;
+
+    private BlockingQueue<SearchEvent> buffer;
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    private Counter accepted;
+    private Counter dropped;
+    private Counter written;
+    private Counter failed;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        accepted = counter("accepted");
+        dropped = counter("dropped");
+        written = counter("written");
+        failed = counter("failed");
+        Gauge.builder("search.history.buffer.size", buffer, BlockingQueue::size).register(meterRegistry);
+
+        if (!enabled) {
+            logger.info("Search history recording disabled");
+            return;
+        }
+        running = true;
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-history-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Records a search by the current user; anonymous searches only count towards trending terms,
+    // having no history row or recent searches to go to
+    public void recordSearch(String searchTerm, SearchHistory.SearchType searchType, long resultCount) {
+        LocalDateTime searchedAt = LocalDateTime.now();
+        String term = normalize(searchTerm);
+        searchTrendingService.record(term, searchedAt);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return;
+        }
+        if (!term.isEmpty()) {
+            recentSearchService.record(authentication.getName(), term, searchedAt);
+        }
+        record(new SearchEvent(authentication.getName(), searchTerm, searchType, resultCount, searchedAt));
+    }
+
+    // Returns false when the event was shed, either because recording is off or the buffer is full
+    public boolean record(SearchEvent event) {
+        if (!running) {
+            return false;
+        }
+        if (buffer.offer(event)) {
+            accepted.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    // Writes everything buffered so far; returns the number of rows upserted
+    public synchronized int flush() {
+        List<SearchEvent> events = new ArrayList<>(buffer.size());
+        buffer.drainTo(events);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<SearchKey, PendingCount> pending = new LinkedHashMap<>();
+        for (SearchEvent event : events) {
+            String term = normalize(event.getSearchTerm());
+            if (term.isEmpty()) {
+                continue;
+            }
+            SearchKey key = new SearchKey(event.getPhoneNumber(), event.getSearchType(), term,
+                event.getSearchedAt().toLocalDate());
+            pending.computeIfAbsent(key, k -> new PendingCount()).add(event);
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        pending.forEach((key, count) -> rows.add(new Object[] {
+            key.term, key.searchType.name(), key.searchDate, count.searches, count.resultCount,
+            count.firstSearchedAt, count.lastSearchedAt, key.phoneNumber
+        }));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        written.increment(rows.size());
+        logger.debug("Search history flushed {} searches as {} rows", events.size(), rows.size());
+        return rows.size();
+    }
+
+    // A failed window is dropped rather than retried, so a database outage cannot back up into search
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            failed.increment();
+            logger.warn("Failed to write search history window: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.error("Unexpected error writing search history", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.shutdown();
+        flusher.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        flushSafely();
+    }
+
+    // Lower-cased with single spaces, so "Dolo  650" and "dolo 650" count as one term
+    public static String normalize(String searchTerm) {
+        if (searchTerm == null) {
+            return "";
+        }
+        String term = searchTerm.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("search.history.events")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public static class SearchEvent {
+
+        private final String phoneNumber;
+        private final String searchTerm;
+        private final SearchHistory.SearchType searchType;
+        private final long resultCount;
+        private final LocalDateTime searchedAt;
+
+        public SearchEvent(String phoneNumber, String searchTerm, SearchHistory.SearchType searchType,
+                           long resultCount, LocalDateTime searchedAt) {
+            this.phoneNumber = phoneNumber;
+            this.searchTerm = searchTerm;
+            this.searchType = searchType;
+            this.resultCount = resultCount;
+            this.searchedAt = searchedAt;
+        }
+
+        public String getPhoneNumber() {
+            return phoneNumber;
+        }
+
+        public String getSearchTerm() {
+            return searchTerm;
+        }
+
+        public SearchHistory.SearchType getSearchType() {
+            return searchType;
+        }
+
+        public long getResultCount() {
+            return resultCount;
+        }
+
+        public LocalDateTime getSearchedAt() {
+            return searchedAt;
+        }
+    }
+
+    private static final class SearchKey {
+
+        private final String phoneNumber;
+        private final SearchHistory.SearchType searchType;
+        private final String term;
+        private final LocalDate searchDate;
+
+        private SearchKey(String phoneNumber, SearchHistory.SearchType searchType, String term, LocalDate searchDate) {
+            this.phoneNumber = phoneNumber;
+            this.searchType = searchType;
+            this.term = term;
+            this.searchDate = searchDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SearchKey)) {
+                return false;
+            }
+            SearchKey other = (SearchKey) o;
+            return phoneNumber.equals(other.phoneNumber) && searchType == other.searchType
+                && term.equals(other.term) && searchDate.equals(other.searchDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(phoneNumber, searchType, term, searchDate);
+        }
+    }
+
+    private static final class PendingCount {
+
+        private int searches;
+        private int resultCount;
+        private LocalDateTime firstSearchedAt;
+        private LocalDateTime lastSearchedAt;
+
+        // Events arrive in buffer order, so the last one carries the latest result count
+        private void add(SearchEvent event) {
+            searches++;
+            resultCount = (int) Math.min(event.getResultCount(), Integer.MAX_VALUE);
+            if (firstSearchedAt == null) {
+                firstSearchedAt = event.getSearchedAt();
+            }
+            lastSearchedAt = event.getSearchedAt();
+        }
+    }
+}
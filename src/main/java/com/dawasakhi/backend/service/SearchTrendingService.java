@@ -0,0 +1,269 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.dto.response.TrendingSearchTerm;
+import com.dawasakhi.backend.exception.ValidationException;
+import com.dawasakhi.backend.util.CountMinSketch;
+import com.dawasakhi.backend.util.HeavyHitters;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Trending search terms over sliding 1h, 24h and 7d windows, without aggregating search_history.
+// Searches are counted into time buckets (5 minutes for the hour window, hourly for the others), each
+// a Count-Min Sketch plus its highest-estimate terms. Every node merges its counts into the shared
+// buckets in Redis on a schedule and then unions each window's buckets once; requests are answered
+// from that result, so figures trail searches by up to the sync interval and windows slide by a
+// whole bucket.
+@Service
+public class SearchTrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchTrendingService.class);
+
+    public static final int MAX_TRENDING_TERMS = 50;
+
+    private static final long FINE_BUCKET_SECONDS = 300;
+    private static final long HOUR_BUCKET_SECONDS = 3600;
+
+    // Overestimates by at most 0.13% of a bucket's searches for 98% of terms, in 32 KB per bucket
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2048;
+
+    private static final RedisScript<Long> MERGE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/search-trending-merge.lua"), Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.search-trending.enabled:true}")
+    private boolean enabled;
+
+    // Terms kept per bucket; a window's ranking is drawn from the union of its buckets' terms
+    @Value("${app.search-trending.candidates:200}")
+    private int candidates;
+
+    // Counts recorded since the last sync, by bucket
+    private Map<Bucket, HeavyHitters> pending = new HashMap<>();
+
+    private volatile Map<Window, List<TrendingSearchTerm>> trending = emptyWindows();
+
+    public void record(String term, LocalDateTime searchedAt) {
+        if (!enabled || term.isEmpty()) {
+            return;
+        }
+        long epochSecond = searchedAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        synchronized (this) {
+            add(new Bucket(FINE_BUCKET_SECONDS, epochSecond / FINE_BUCKET_SECONDS), term);
+            add(new Bucket(HOUR_BUCKET_SECONDS, epochSecond / HOUR_BUCKET_SECONDS), term);
+        }
+    }
+
+    public List<TrendingSearchTerm> getTrendingTerms(Window window, int limit) {
+        List<TrendingSearchTerm> terms = trending.get(window);
+        return terms.subList(0, Math.min(Math.max(limit, 1), terms.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.search-trending.sync-interval-ms:30000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        mergePending();
+
+        Map<Window, List<TrendingSearchTerm>> refreshed = new EnumMap<>(Window.class);
+        try {
+            for (Window window : Window.values()) {
+                refreshed.put(window, readWindow(window, start / 1000));
+            }
+        } catch (Exception e) {
+            // Keep serving the previous result until Redis is back
+            logger.warn("Failed to refresh trending search terms: {}", e.getMessage());
+            return;
+        }
+        trending = refreshed;
+        logger.debug("Trending search terms synced in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (enabled) {
+            mergePending();
+        }
+    }
+
+    // Counts that fail to merge are dropped, so a Redis outage cannot build up memory here
+    private void mergePending() {
+        Map<Bucket, HeavyHitters> counts;
+        synchronized (this) {
+            counts = pending;
+            pending = new HashMap<>();
+        }
+        counts.forEach((bucket, hitters) -> {
+            try {
+                merge(bucket, hitters);
+            } catch (Exception e) {
+                logger.warn("Failed to merge trending search counts for {}: {}", bucket.key(), e.getMessage());
+            }
+        });
+    }
+
+    private void add(Bucket bucket, String term) {
+        pending.computeIfAbsent(bucket, b -> new HeavyHitters(SKETCH_DEPTH, SKETCH_WIDTH, candidates)).add(term, 1);
+    }
+
+    // Only non-zero counters are sent; the bucket's own top terms are rescored against the merged
+    // counters, so a term that is spread thinly over several nodes can still rank
+    private void merge(Bucket bucket, HeavyHitters hitters) {
+        CountMinSketch sketch = hitters.getSketch();
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(bucket.retentionSeconds()));
+        args.add(String.valueOf(candidates));
+        args.add(String.valueOf(sketch.getDepth()));
+        args.add(null);
+
+        int updates = 0;
+        for (int cell = 0; cell < sketch.size(); cell++) {
+            int count = sketch.counterAt(cell);
+            if (count != 0) {
+                args.add(String.valueOf(cell));
+                args.add(String.valueOf(count));
+                updates++;
+            }
+        }
+        args.set(3, String.valueOf(updates));
+
+        for (String term : hitters.getCandidates().keySet()) {
+            args.add(term);
+            for (int cell : sketch.cells(term)) {
+                args.add(String.valueOf(cell));
+            }
+        }
+
+        stringRedisTemplate.execute(MERGE_SCRIPT, Arrays.asList(bucket.key() + ":sketch", bucket.key() + ":terms"),
+                args.toArray());
+    }
+
+    private List<TrendingSearchTerm> readWindow(Window window, long epochSecond) {
+        long current = epochSecond / window.resolutionSeconds;
+        List<String> keys = new ArrayList<>(window.buckets);
+        for (long index = current - window.buckets + 1; index <= current; index++) {
+            keys.add(new Bucket(window.resolutionSeconds, index).key() + ":terms");
+        }
+
+        String destination = AppConstants.SEARCH_TRENDING + "window:" + window.label;
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+        zSet.unionAndStore(keys.get(0), keys.subList(1, keys.size()), destination);
+        stringRedisTemplate.expire(destination, Duration.ofSeconds(window.resolutionSeconds * window.buckets));
+
+        Set<ZSetOperations.TypedTuple<String>> top = zSet.reverseRangeWithScores(destination, 0, MAX_TRENDING_TERMS - 1);
+        List<TrendingSearchTerm> terms = new ArrayList<>();
+        if (top != null) {
+            for (ZSetOperations.TypedTuple<String> entry : top) {
+                terms.add(new TrendingSearchTerm(entry.getValue(), Math.round(entry.getScore())));
+            }
+        }
+        return List.copyOf(terms);
+    }
+
+    private static Map<Window, List<TrendingSearchTerm>> emptyWindows() {
+        Map<Window, List<TrendingSearchTerm>> windows = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            windows.put(window, List.of());
+        }
+        return windows;
+    }
+
+    public enum Window {
+        LAST_HOUR("1h", FINE_BUCKET_SECONDS, 12),
+        LAST_DAY("24h", HOUR_BUCKET_SECONDS, 24),
+        LAST_WEEK("7d", HOUR_BUCKET_SECONDS, 168);
+
+        private final String label;
+        private final long resolutionSeconds;
+        private final int buckets;
+
+        Window(String label, long resolutionSeconds, int buckets) {
+            this.label = label;
+            this.resolutionSeconds = resolutionSeconds;
+            this.buckets = buckets;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Window fromLabel(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return window;
+                }
+            }
+            throw new ValidationException("Unsupported trending window: " + label + ", expected 1h, 24h or 7d",
+                "INVALID_TRENDING_WINDOW");
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long resolutionSeconds;
+        private final long index;
+
+        private Bucket(long resolutionSeconds, long index) {
+            this.resolutionSeconds = resolutionSeconds;
+            this.index = index;
+        }
+
+        private String key() {
+            return AppConstants.SEARCH_TRENDING + resolutionSeconds + ":" + index;
+        }
+
+        // Kept one bucket longer than the longest window that reads it
+        private long retentionSeconds() {
+            int buckets = 0;
+            for (Window window : Window.values()) {
+                if (window.resolutionSeconds == resolutionSeconds) {
+                    buckets = Math.max(buckets, window.buckets);
+                }
+            }
+            return (buckets + 1) * resolutionSeconds;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Bucket)) {
+                return false;
+            }
+            Bucket other = (Bucket) o;
+            return resolutionSeconds == other.resolutionSeconds && index == other.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resolutionSeconds, index);
+        }
+    }
+}
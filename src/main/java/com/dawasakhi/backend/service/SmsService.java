@@ -0,0 +1,53 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.exception.DawaSureException;
+import com.dawasakhi.backend.service.sms.SmsDispatcher;
+import com.dawasakhi.backend.service.sms.SmsMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SmsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsService.class);
+
+    private static final String PURPOSE_OTP = "OTP";
+
+    @Autowired
+    private SmsDispatcher smsDispatcher;
+
+    @Value("${app.name:DawaSakhi}")
+    private String appName;
+
+    @Value("${app.sms.enabled:true}")
+    private boolean smsEnabled;
+
+    // Hands the message to the dispatch queue and returns; delivery happens on the SMS workers
+    public void sendOtp(String phoneNumber, String otp) {
+        if (!smsEnabled) {
+            // The code is never logged; development gets it through the stub provider instead
+            logger.info("SMS disabled, OTP not sent to phone: {}", maskPhoneNumber(phoneNumber));
+            return;
+        }
+
+        String body = String.format("%s is your %s verification code. It is valid for %d minutes. Do not share it with anyone.",
+            otp, appName, AppConstants.CACHE_TTL_OTP / 60);
+        if (!smsDispatcher.submit(new SmsMessage(phoneNumber, body, PURPOSE_OTP))) {
+            throw new DawaSureException("SMS queue is full, please try again shortly",
+                "SMS_QUEUE_FULL", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // Only the last four digits, enough to tell numbers apart in the logs
+    private static String maskPhoneNumber(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.length() <= 4) {
+            return "****";
+        }
+        return "*".repeat(phoneNumber.length() - 4) + phoneNumber.substring(phoneNumber.length() - 4);
+    }
+}
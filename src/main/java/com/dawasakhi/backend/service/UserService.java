@@ -4,8 +4,8 @@ import com.dawasakhi.backend.dto.response.UserResponse;
 import com.dawasakhi.backend.entity.User;
 import com.dawasakhi.backend.exception.ResourceNotFoundException;
 import com.dawasakhi.backend.exception.ValidationException;
+import com.dawasakhi.backend.mapper.UserMapper;
 import com.dawasakhi.backend.repository.UserRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,20 +29,20 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
 
     public UserResponse getUserById(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId, "USER_NOT_FOUND"));
         
-        return modelMapper.map(user, UserResponse.class);
+        return userMapper.toResponse(user);
     }
 
     public UserResponse getUserByPhoneNumber(String phoneNumber) {
         User user = userRepository.findByPhoneNumber(phoneNumber)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with phone: " + phoneNumber, "USER_NOT_FOUND"));
         
-        return modelMapper.map(user, UserResponse.class);
+        return userMapper.toResponse(user);
     }
 
     public UserResponse updateUserProfile(String phoneNumber, UpdateUserRequest request) {
@@ -75,7 +75,7 @@ public class UserService {
         user = userRepository.save(user);
 
         logger.info("User profile updated for phone: {}", phoneNumber);
-        return modelMapper.map(user, UserResponse.class);
+        return userMapper.toResponse(user);
     }
 
     public void deleteUser(String phoneNumber) {
@@ -97,7 +97,7 @@ public class UserService {
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<User> users = userRepository.findByAccountStatusNot(User.AccountStatus.DELETED, pageable);
         
-        return users.map(user -> modelMapper.map(user, UserResponse.class));
+        return users.map(userMapper::toResponse);
     }
 
     public boolean existsByPhoneNumber(String phoneNumber) {
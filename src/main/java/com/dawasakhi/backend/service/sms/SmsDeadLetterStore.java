@@ -0,0 +1,50 @@
+package com.dawasakhi.backend.service.sms;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Capped Redis list of messages that exhausted their retries. The body is not kept because it
+// usually carries an OTP that has expired by the time anyone looks at the entry.
+@Component
+public class SmsDeadLetterStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsDeadLetterStore.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.sms.dead-letter.max-size:10000}")
+    private long maxSize;
+
+    public void add(SmsMessage message, String provider) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("phoneNumber", message.getPhoneNumber());
+        entry.put("purpose", message.getPurpose());
+        entry.put("provider", provider);
+        entry.put("attempts", message.getAttempts());
+        entry.put("lastError", message.getLastError());
+        entry.put("createdAt", message.getCreatedAt().toString());
+        entry.put("failedAt", LocalDateTime.now().toString());
+
+        try {
+            stringRedisTemplate.opsForList().leftPush(AppConstants.SMS_DEAD_LETTER, objectMapper.writeValueAsString(entry));
+            stringRedisTemplate.opsForList().trim(AppConstants.SMS_DEAD_LETTER, 0, maxSize - 1);
+        } catch (Exception e) {
+            logger.error("Error writing SMS to dead-letter store for phone: {} - Error: {}",
+                message.getPhoneNumber(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.dawasakhi.backend.service.sms;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Request threads only enqueue; a fixed pool of workers drains the bounded queue in batches, sends
+// under the provider's rate limit, retries failures with exponential backoff and dead-letters
+// messages that run out of attempts.
+@Component
+public class SmsDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsDispatcher.class);
+
+    @Autowired
+    private SmsProvider provider;
+
+    @Autowired
+    private SmsDeadLetterStore deadLetterStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sms.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.sms.workers:4}")
+    private int workerCount;
+
+    @Value("${app.sms.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.sms.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.sms.retry-backoff-ms:1000}")
+    private long retryBackoffMillis;
+
+    @Value("${app.sms.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMillis;
+
+    private BlockingQueue<SmsMessage> queue;
+    private Bucket rateLimiter;
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    private Counter sent;
+    private Counter retried;
+    private Counter deadLettered;
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        rateLimiter = Bucket.builder()
+            .addLimit(Bandwidth.simple(provider.getRateLimitPerSecond(), Duration.ofSeconds(1)))
+            .build();
+
+        sent = counter("sent");
+        retried = counter("retried");
+        deadLettered = counter("dead_lettered");
+        rejected = counter("rejected");
+        Gauge.builder("sms.dispatch.queue.size", queue, BlockingQueue::size)
+            .tag("provider", provider.getName())
+            .register(meterRegistry);
+
+        running = true;
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("sms-retry"));
+        workers = Executors.newFixedThreadPool(workerCount, namedThreads("sms-worker"));
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drainQueue);
+        }
+        logger.info("SMS dispatcher started with provider '{}', {} workers, {} msg/s",
+            provider.getName(), workerCount, provider.getRateLimitPerSecond());
+    }
+
+    // Returns false when the queue is full so callers can fail fast instead of blocking
+    public boolean submit(SmsMessage message) {
+        if (running && queue.offer(message)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drainQueue() {
+        List<SmsMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            int next = 0;
+            try {
+                SmsMessage first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (; next < batch.size(); next++) {
+                    rateLimiter.asBlocking().consume(1);
+                    deliver(batch.get(next));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (SmsMessage message : batch.subList(next, batch.size())) {
+                    if (!queue.offer(message)) {
+                        deadLetter(message);
+                    }
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(SmsMessage message) {
+        try {
+            provider.send(message);
+            sent.increment();
+        } catch (Exception e) {
+            message.recordFailure(e.getMessage());
+            if (message.getAttempts() >= maxAttempts || !running) {
+                deadLetter(message);
+            } else {
+                scheduleRetry(message);
+            }
+        }
+    }
+
+    // Full jitter on top of exponential backoff so a provider outage does not produce retry waves
+    private void scheduleRetry(SmsMessage message) {
+        long backoff = retryBackoffMillis << (message.getAttempts() - 1);
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        retried.increment();
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(message)) {
+                deadLetter(message);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(SmsMessage message) {
+        deadLettered.increment();
+        logger.error("SMS to phone: {} dead-lettered after {} attempts - Error: {}",
+            message.getPhoneNumber(), message.getAttempts(), message.getLastError());
+        deadLetterStore.add(message, provider.getName());
+    }
+
+    // Stop accepting, let workers finish what is queued, then dead-letter anything left over
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        SmsMessage message;
+        while ((message = queue.poll()) != null) {
+            deadLetter(message);
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("sms.dispatch")
+            .tag("provider", provider.getName())
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.dawasakhi.backend.service.sms;
+
+import java.time.LocalDateTime;
+
+public class SmsMessage {
+
+    private final String phoneNumber;
+    private final String body;
+    private final String purpose;
+    private final LocalDateTime createdAt;
+    private int attempts;
+    private String lastError;
+
+    public SmsMessage(String phoneNumber, String body, String purpose) {
+        this.phoneNumber = phoneNumber;
+        this.body = body;
+        this.purpose = purpose;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getPhoneNumber() { return phoneNumber; }
+    public String getBody() { return body; }
+    public String getPurpose() { return purpose; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public int getAttempts() { return attempts; }
+    public String getLastError() { return lastError; }
+
+    void recordFailure(String error) {
+        this.attempts++;
+        this.lastError = error;
+    }
+}
@@ -0,0 +1,12 @@
+package com.dawasakhi.backend.service.sms;
+
+// Transport used by SmsDispatcher. Implementations throw on any failure so the dispatcher can retry.
+public interface SmsProvider {
+
+    String getName();
+
+    // Sustained sends per second the provider account allows
+    long getRateLimitPerSecond();
+
+    void send(SmsMessage message) throws Exception;
+}
@@ -0,0 +1,55 @@
+package com.dawasakhi.backend.service.sms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// Local provider for development and load tests: logs the message after a simulated provider
+// latency and fails a configurable fraction of sends so the retry path gets exercised. Only used
+// where app.sms.provider is set to stub (application-development.yml), never by default.
+@Component
+@ConditionalOnProperty(name = "app.sms.provider", havingValue = "stub")
+public class StubSmsProvider implements SmsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubSmsProvider.class);
+
+    // OTPs and other codes in the message body
+    private static final Pattern CODE = Pattern.compile("\\d{4,8}");
+
+    @Value("${app.sms.stub.latency-ms:200}")
+    private long latencyMillis;
+
+    @Value("${app.sms.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    @Value("${app.sms.stub.rate-limit-per-second:1000}")
+    private long rateLimitPerSecond;
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public long getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+
+    @Override
+    public void send(SmsMessage message) throws Exception {
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated provider failure");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("[SMS stub] to {}: {}", message.getPhoneNumber(), CODE.matcher(message.getBody()).replaceAll("******"));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.dawasakhi.backend.service.sms;
+
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.sms.provider", havingValue = "twilio")
+public class TwilioSmsProvider implements SmsProvider {
+
+    private static final String COUNTRY_CODE = "+91";
+
+    @Value("${twilio.account.sid}")
+    private String accountSid;
+
+    @Value("${twilio.auth.token}")
+    private String authToken;
+
+    @Value("${twilio.phone.number}")
+    private String fromNumber;
+
+    @Value("${twilio.rate-limit-per-second:10}")
+    private long rateLimitPerSecond;
+
+    @PostConstruct
+    public void init() {
+        Twilio.init(accountSid, authToken);
+    }
+
+    @Override
+    public String getName() {
+        return "twilio";
+    }
+
+    @Override
+    public long getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+
+    @Override
+    public void send(SmsMessage message) {
+        Message.creator(new PhoneNumber(COUNTRY_CODE + message.getPhoneNumber()),
+                new PhoneNumber(fromNumber), message.getBody()).create();
+    }
+}
@@ -0,0 +1,73 @@
+package com.dawasakhi.backend.util;
+
+// Count-Min Sketch over strings: depth rows of width counters, one counter per row per value.
+// estimate never returns less than the true count, and with probability 1 - e^-depth overestimates by
+// at most e/width of the total count. Not thread-safe.
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Sketch depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new int[depth * width];
+    }
+
+    // Returns the estimate for value after adding count
+    public long add(String value, int count) {
+        long estimate = Long.MAX_VALUE;
+        for (int cell : cells(value)) {
+            counters[cell] += count;
+            estimate = Math.min(estimate, Integer.toUnsignedLong(counters[cell]));
+        }
+        total += count;
+        return estimate;
+    }
+
+    public long estimate(String value) {
+        long estimate = Long.MAX_VALUE;
+        for (int cell : cells(value)) {
+            estimate = Math.min(estimate, Integer.toUnsignedLong(counters[cell]));
+        }
+        return estimate;
+    }
+
+    // Index of the counter for value in each row, as an offset into the depth x width table, so
+    // another copy of the table (e.g. in Redis) can be updated and read the same way
+    public int[] cells(String value) {
+        long hash = BloomFilter.hash64(value);
+        int low = (int) hash;
+        int high = (int) (hash >>> 32);
+        int[] cells = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            cells[row] = row * width + (int) (Integer.toUnsignedLong(low + (row + 1) * high) % width);
+        }
+        return cells;
+    }
+
+    public int counterAt(int cell) {
+        return counters[cell];
+    }
+
+    public int size() {
+        return counters.length;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+package com.dawasakhi.backend.util;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Most frequent terms of a stream in bounded memory. Every term is counted in a Count-Min Sketch;
+// the capacity terms with the highest estimates are kept as candidates, with the lowest at the head
+// of a min-heap so a newcomer only has to beat that one. Not thread-safe.
+public class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, Long> candidates = new HashMap<>();
+
+    // Heap entries are refreshed lazily: estimates only grow, so an entry that has fallen behind its
+    // candidate's current estimate is re-queued when it reaches the head instead of on every add
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(c -> c.estimate));
+
+    public HeavyHitters(int depth, int width, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.sketch = new CountMinSketch(depth, width);
+        this.capacity = capacity;
+    }
+
+    public void add(String term, int count) {
+        long estimate = sketch.add(term, count);
+        if (candidates.containsKey(term)) {
+            candidates.put(term, estimate);
+            return;
+        }
+        if (candidates.size() < capacity) {
+            admit(term, estimate);
+            return;
+        }
+        Candidate lowest = lowest();
+        if (estimate > lowest.estimate) {
+            heap.poll();
+            candidates.remove(lowest.term);
+            admit(term, estimate);
+        }
+    }
+
+    // Candidate terms with their estimated counts, in no particular order
+    public Map<String, Long> getCandidates() {
+        return Collections.unmodifiableMap(candidates);
+    }
+
+    public CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    public boolean isEmpty() {
+        return sketch.getTotal() == 0;
+    }
+
+    private void admit(String term, long estimate) {
+        candidates.put(term, estimate);
+        heap.add(new Candidate(term, estimate));
+    }
+
+    private Candidate lowest() {
+        while (true) {
+            Candidate head = heap.peek();
+            long current = candidates.get(head.term);
+            if (current == head.estimate) {
+                return head;
+            }
+            heap.poll();
+            heap.add(new Candidate(head.term, current));
+        }
+    }
+
+    private static final class Candidate {
+
+        private final String term;
+        private final long estimate;
+
+        private Candidate(String term, long estimate) {
+            this.term = term;
+            this.estimate = estimate;
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package com.dawasakhi.backend.util;
 
+import com.dawasakhi.backend.config.AppConstants;
 import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.security.TokenBlacklist;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -40,15 +50,114 @@ public class JwtUtil {
     @Value("${jwt.audience}")
     private String audience;
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
 
-    public JwtUtil(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    private final TokenBlacklist tokenBlacklist;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtil(TokenBlacklist tokenBlacklist) {
+        this.tokenBlacklist = tokenBlacklist;
+    }
+
+    // Key and parser are immutable and thread-safe, so they are built once instead of per call
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .requireIssuer(issuer)
+                .requireAudience(audience)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(
+                                token.getExpiresAt().toEpochMilli() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
+    }
+
+    public static class VerifiedToken {
+        private final String tokenId;
+        private final String subject;
+        private final String userId;
+        private final String role;
+        private final String tokenType;
+        private final String deviceId;
+        private final String familyId;
+        private final Instant expiresAt;
+
+        // Tokens issued before jti was added fall back to the token hash
+        public VerifiedToken(Claims claims, String tokenHash) {
+            this.tokenId = claims.getId() != null ? claims.getId() : tokenHash;
+            this.subject = claims.getSubject();
+            this.userId = claims.get("userId", String.class);
+            this.role = claims.get("role", String.class);
+            this.tokenType = claims.get("tokenType", String.class);
+            // Tokens issued before device sessions existed belong to the default device
+            String device = claims.get("deviceId", String.class);
+            this.deviceId = device != null ? device : AppConstants.DEFAULT_DEVICE_ID;
+            this.familyId = claims.get("familyId", String.class);
+            this.expiresAt = claims.getExpiration().toInstant();
+        }
+
+        public String getTokenId() { return tokenId; }
+        public String getSubject() { return subject; }
+        public String getUserId() { return userId; }
+        public String getRole() { return role; }
+        public String getTokenType() { return tokenType; }
+        public String getDeviceId() { return deviceId; }
+        public String getFamilyId() { return familyId; }
+        public Instant getExpiresAt() { return expiresAt; }
+
+        public boolean isExpired() {
+            return !expiresAt.isAfter(Instant.now());
+        }
+    }
+
+    // Verifies the token once; repeat calls with the same token are served from a cache keyed by
+    // the token hash until the token's own expiry, skipping signature verification entirely
+    public VerifiedToken verifyToken(String token) {
+        String tokenHash = hashToken(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        VerifiedToken verified = new VerifiedToken(extractAllClaims(token), tokenHash);
+        verifiedTokens.put(tokenHash, verified);
+        return verified;
+    }
+
+    public static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public String extractUsername(String token) {
@@ -74,13 +183,7 @@ public class JwtUtil {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .requireIssuer(issuer)
-                    .requireAudience(audience)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             logger.warn("JWT token is expired: {}", e.getMessage());
             throw e;
@@ -108,26 +211,34 @@ public class JwtUtil {
     }
 
     public String generateAccessToken(User user) {
+        return generateAccessToken(user, AppConstants.DEFAULT_DEVICE_ID);
+    }
+
+    public String generateAccessToken(User user, String deviceId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getUserId().toString());
         claims.put("phoneNumber", user.getPhoneNumber());
         claims.put("role", user.getRole().name());
         claims.put("tokenType", "access");
+        claims.put("deviceId", deviceId);
         
         return createToken(claims, user.getPhoneNumber(), accessTokenExpiry);
     }
 
-    public String generateRefreshToken(User user) {
+    // familyId ties every rotated refresh token of one device session together
+    public String generateRefreshToken(User user, String deviceId, String familyId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getUserId().toString());
         claims.put("tokenType", "refresh");
+        claims.put("deviceId", deviceId);
+        claims.put("familyId", familyId);
         
         return createToken(claims, user.getPhoneNumber(), refreshTokenExpiry);
     }
 
-    public Map<String, String> generateTokens(User user) {
-        String accessToken = generateAccessToken(user);
-        String refreshToken = generateRefreshToken(user);
+    public Map<String, String> generateTokens(User user, String deviceId, String familyId) {
+        String accessToken = generateAccessToken(user, deviceId);
+        String refreshToken = generateRefreshToken(user, deviceId, familyId);
         
         Map<String, String> tokens = new HashMap<>();
         tokens.put("accessToken", accessToken);
@@ -142,6 +253,7 @@ public class JwtUtil {
         
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuer(issuer)
                 .setAudience(audience)
@@ -174,14 +286,14 @@ public class JwtUtil {
         }
     }
 
+    // Blacklist entries are keyed by jti rather than the raw token
     public void blacklistToken(String token) {
         try {
-            Date expiration = extractExpiration(token);
-            long ttl = expiration.getTime() - System.currentTimeMillis();
+            VerifiedToken verified = verifyToken(token);
+            long ttl = verified.getExpiresAt().toEpochMilli() - System.currentTimeMillis();
             
             if (ttl > 0) {
-                String blacklistKey = "blacklist:" + token;
-                redisTemplate.opsForValue().set(blacklistKey, "1", ttl, TimeUnit.MILLISECONDS);
+                tokenBlacklist.add(verified.getTokenId(), ttl);
                 logger.info("Token blacklisted successfully");
             }
         } catch (Exception e) {
@@ -191,9 +303,16 @@ public class JwtUtil {
 
     public boolean isTokenBlacklisted(String token) {
         try {
-            String blacklistKey = "blacklist:" + token;
-            Object result = redisTemplate.opsForValue().get(blacklistKey);
-            return "1".equals(result);
+            return isTokenBlacklisted(verifyToken(token));
+        } catch (Exception e) {
+            logger.error("Error checking blacklisted token: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean isTokenBlacklisted(VerifiedToken verifiedToken) {
+        try {
+            return tokenBlacklist.isBlacklisted(verifiedToken.getTokenId());
         } catch (Exception e) {
             logger.error("Error checking blacklisted token: {}", e.getMessage());
             return false;
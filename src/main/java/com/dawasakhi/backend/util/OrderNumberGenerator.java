@@ -0,0 +1,94 @@
+package com.dawasakhi.backend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style order numbers: DS + 18 zero-padded digits of a 59-bit id made of milliseconds since
+// 2024-01-01 (41 bits, until 2093), the node id (6 bits) and a per-millisecond sequence (12 bits).
+// Numbers from one node are strictly increasing; distinct nodes never collide. Generation is a single
+// CAS on the node's logical clock: when a millisecond's 4096 sequence values run out, or the wall
+// clock steps back, the clock runs ahead of real time instead of blocking.
+public class OrderNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberGenerator.class);
+
+    public static final String PREFIX = "DS";
+    public static final int LENGTH = 20;
+    public static final int NODE_BITS = 6;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int DIGITS = LENGTH - PREFIX.length();
+
+    // Used by Order on insert, which is not a Spring bean; replaced at startup by the configured node's
+    // generator. Contexts without BeanConfig get a node 0 placeholder.
+    private static volatile OrderNumberGenerator shared;
+
+    private final long nodeBits;
+
+    // Milliseconds since the epoch << SEQUENCE_BITS | sequence of the last id handed out
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public OrderNumberGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order number node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    public static OrderNumberGenerator shared() {
+        OrderNumberGenerator generator = shared;
+        if (generator == null) {
+            synchronized (OrderNumberGenerator.class) {
+                if (shared == null) {
+                    shared = new OrderNumberGenerator(0);
+                }
+                generator = shared;
+            }
+        }
+        return generator;
+    }
+
+    public static void setShared(OrderNumberGenerator generator) {
+        shared = generator;
+    }
+
+    public String next() {
+        return format(nextId());
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long tick = lastTick.accumulateAndGet(now, (last, current) -> Math.max(last + 1, current));
+        return (tick >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (tick & SEQUENCE_MASK);
+    }
+
+    public static String format(long id) {
+        String digits = Long.toString(id);
+        StringBuilder number = new StringBuilder(LENGTH).append(PREFIX);
+        for (int i = digits.length(); i < DIGITS; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    // Development fallback when app.order-number.node-id is not set: stable per host, but two hosts can share it
+    public static int hostNodeId() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            int nodeId = Math.floorMod(host.hashCode(), MAX_NODE_ID + 1);
+            logger.warn("app.order-number.node-id not set, using {} derived from host name {}; " +
+                "set distinct node ids when running several instances", nodeId, host);
+            return nodeId;
+        } catch (UnknownHostException e) {
+            logger.warn("app.order-number.node-id not set and host name unavailable, using node id 0");
+            return 0;
+        }
+    }
+}
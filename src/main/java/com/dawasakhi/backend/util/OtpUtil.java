@@ -1,14 +1,15 @@
 package com.dawasakhi.backend.util;
 
 import com.dawasakhi.backend.config.AppConstants;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
@@ -20,42 +21,28 @@ public class OtpUtil {
     private static final int MAX_ATTEMPTS = 3;
     private static final int MIN_INTERVAL_SECONDS = 30;
 
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+    // Results of redis/otp-verify.lua
+    private static final long VERIFY_NOT_FOUND = 0;
+    private static final long VERIFY_SUCCESS = 1;
+    private static final long VERIFY_ALREADY_USED = 2;
+    private static final long VERIFY_ATTEMPTS_EXCEEDED = 3;
+
+    // OTP state is a Redis hash (otp, createdAt, attempts, verified) that is only modified by these
+    // scripts, so concurrent requests for the same phone number cannot race past MAX_ATTEMPTS
+    private static final RedisScript<Long> STORE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/otp-store.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> VERIFY_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/otp-verify.lua"), List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
     private final Random random;
 
-    public OtpUtil(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
-        this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+    public OtpUtil(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
         this.random = new Random();
     }
 
-    public static class OtpData {
-        private String otp;
-        private LocalDateTime createdAt;
-        private int attempts;
-        private boolean verified;
-
-        public OtpData() {}
-
-        public OtpData(String otp) {
-            this.otp = otp;
-            this.createdAt = LocalDateTime.now();
-            this.attempts = 0;
-            this.verified = false;
-        }
-
-        // Getters and Setters
-        public String getOtp() { return otp; }
-        public void setOtp(String otp) { this.otp = otp; }
-        public LocalDateTime getCreatedAt() { return createdAt; }
-        public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
-        public int getAttempts() { return attempts; }
-        public void setAttempts(int attempts) { this.attempts = attempts; }
-        public boolean isVerified() { return verified; }
-        public void setVerified(boolean verified) { this.verified = verified; }
-    }
-
     public static class OtpResult {
         private boolean success;
         private String error;
@@ -95,25 +82,25 @@ public class OtpUtil {
 
     public OtpResult storeOtp(String phoneNumber, String otpType) {
         try {
-            // Check if we can request new OTP
-            OtpResult canRequestResult = canRequestNewOtp(phoneNumber, otpType);
-            if (!canRequestResult.isSuccess()) {
-                return canRequestResult;
-            }
-
             String otp = generateOtp();
-            OtpData otpData = new OtpData(otp);
-            
             String key = buildOtpKey(phoneNumber, otpType);
-            String otpDataJson = objectMapper.writeValueAsString(otpData);
-            
-            redisTemplate.opsForValue().set(key, otpDataJson, AppConstants.CACHE_TTL_OTP, TimeUnit.SECONDS);
-            
+
+            // Interval check and write happen in the same script
+            Long waitMillis = stringRedisTemplate.execute(STORE_SCRIPT, Collections.singletonList(key),
+                    otp,
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(TimeUnit.SECONDS.toMillis(MIN_INTERVAL_SECONDS)),
+                    String.valueOf(AppConstants.CACHE_TTL_OTP));
+
+            if (waitMillis != null && waitMillis > 0) {
+                return buildWaitResult(waitMillis);
+            }
+
             OtpResult result = new OtpResult(true);
             result.setOtp(otp);
             return result;
-            
-        } catch (JsonProcessingException e) {
+
+        } catch (Exception e) {
             logger.error("Error storing OTP: {}", e.getMessage());
             return new OtpResult(false, "Failed to generate OTP");
         }
@@ -122,42 +109,30 @@ public class OtpUtil {
     public OtpResult verifyOtp(String phoneNumber, String providedOtp, String otpType) {
         try {
             String key = buildOtpKey(phoneNumber, otpType);
-            Object otpDataObj = redisTemplate.opsForValue().get(key);
-            
-            if (otpDataObj == null) {
+            List<?> reply = stringRedisTemplate.execute(VERIFY_SCRIPT, Collections.singletonList(key),
+                    providedOtp, String.valueOf(MAX_ATTEMPTS));
+
+            long status = ((Number) reply.get(0)).longValue();
+            int attempts = ((Number) reply.get(1)).intValue();
+
+            if (status == VERIFY_SUCCESS) {
+                return new OtpResult(true);
+            }
+            if (status == VERIFY_NOT_FOUND) {
                 return new OtpResult(false, "OTP expired or not found");
             }
-            
-            OtpData otpData = objectMapper.readValue(otpDataObj.toString(), OtpData.class);
-            
-            if (otpData.isVerified()) {
+            if (status == VERIFY_ALREADY_USED) {
                 return new OtpResult(false, "OTP already used");
             }
-            
-            if (otpData.getAttempts() >= MAX_ATTEMPTS) {
-                invalidateOtp(phoneNumber, otpType);
+            if (status == VERIFY_ATTEMPTS_EXCEEDED) {
                 return new OtpResult(false, "Maximum OTP attempts exceeded");
             }
-            
-            // Increment attempts
-            otpData.setAttempts(otpData.getAttempts() + 1);
-            String updatedOtpDataJson = objectMapper.writeValueAsString(otpData);
-            redisTemplate.opsForValue().set(key, updatedOtpDataJson, AppConstants.CACHE_TTL_OTP, TimeUnit.SECONDS);
-            
-            if (!otpData.getOtp().equals(providedOtp)) {
-                OtpResult result = new OtpResult(false, "Invalid OTP");
-                result.setAttemptsRemaining(MAX_ATTEMPTS - otpData.getAttempts());
-                return result;
-            }
-            
-            // Mark as verified
-            otpData.setVerified(true);
-            updatedOtpDataJson = objectMapper.writeValueAsString(otpData);
-            redisTemplate.opsForValue().set(key, updatedOtpDataJson, AppConstants.CACHE_TTL_OTP, TimeUnit.SECONDS);
-            
-            return new OtpResult(true);
-            
-        } catch (JsonProcessingException e) {
+
+            OtpResult result = new OtpResult(false, "Invalid OTP");
+            result.setAttemptsRemaining(MAX_ATTEMPTS - attempts);
+            return result;
+
+        } catch (Exception e) {
             logger.error("Error verifying OTP: {}", e.getMessage());
             return new OtpResult(false, "OTP verification failed");
         }
@@ -166,7 +141,7 @@ public class OtpUtil {
     public void invalidateOtp(String phoneNumber, String otpType) {
         try {
             String key = buildOtpKey(phoneNumber, otpType);
-            redisTemplate.delete(key);
+            stringRedisTemplate.delete(key);
         } catch (Exception e) {
             logger.error("Error invalidating OTP: {}", e.getMessage());
         }
@@ -175,7 +150,7 @@ public class OtpUtil {
     public long getRemainingOtpTime(String phoneNumber, String otpType) {
         try {
             String key = buildOtpKey(phoneNumber, otpType);
-            Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
+            Long ttl = stringRedisTemplate.getExpire(key, TimeUnit.SECONDS);
             return ttl != null && ttl > 0 ? ttl : 0;
         } catch (Exception e) {
             logger.error("Error getting OTP TTL: {}", e.getMessage());
@@ -186,34 +161,35 @@ public class OtpUtil {
     public OtpResult canRequestNewOtp(String phoneNumber, String otpType) {
         try {
             String key = buildOtpKey(phoneNumber, otpType);
-            Object otpDataObj = redisTemplate.opsForValue().get(key);
+            Object createdAt = stringRedisTemplate.opsForHash().get(key, "createdAt");
             
-            if (otpDataObj == null) {
+            if (createdAt == null) {
                 return new OtpResult(true);
             }
             
-            OtpData otpData = objectMapper.readValue(otpDataObj.toString(), OtpData.class);
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime createdAt = otpData.getCreatedAt();
-            
-            long secondsDiff = java.time.Duration.between(createdAt, now).getSeconds();
+            long elapsedMillis = System.currentTimeMillis() - Long.parseLong(createdAt.toString());
+            long intervalMillis = TimeUnit.SECONDS.toMillis(MIN_INTERVAL_SECONDS);
             
-            if (secondsDiff < MIN_INTERVAL_SECONDS) {
-                OtpResult result = new OtpResult(false, 
-                    String.format("Please wait %d seconds before requesting new OTP", 
-                    MIN_INTERVAL_SECONDS - secondsDiff));
-                result.setWaitTime((int)(MIN_INTERVAL_SECONDS - secondsDiff));
-                return result;
+            if (elapsedMillis < intervalMillis) {
+                return buildWaitResult(intervalMillis - elapsedMillis);
             }
             
             return new OtpResult(true);
             
-        } catch (JsonProcessingException e) {
+        } catch (Exception e) {
             logger.error("Error checking OTP request eligibility: {}", e.getMessage());
             return new OtpResult(true); // Allow request if error occurs
         }
     }
 
+    private OtpResult buildWaitResult(long waitMillis) {
+        long waitSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+        OtpResult result = new OtpResult(false, 
+            String.format("Please wait %d seconds before requesting new OTP", waitSeconds));
+        result.setWaitTime((int) waitSeconds);
+        return result;
+    }
+
     private String buildOtpKey(String phoneNumber, String otpType) {
         return AppConstants.CACHE_OTP + otpType + ":" + phoneNumber;
     }
@@ -0,0 +1,17 @@
+-- Entity ids come from sequences with Hibernate's pooled optimizer: one nextval reserves
+-- AppConstants.ID_ALLOCATION_SIZE ids, so inserts can be batched.
+-- Idempotent: executed on every startup (spring.sql.init) before Hibernate validates the sequences.
+--
+-- Tables created while ids were IDENTITY/serial already own a <table>_<column>_seq sequence; the
+-- entities now use those same sequences, which only need the larger increment. Hibernate treats a
+-- sequence value as the highest id of its block, so blocks start above every id already issued.
+-- Writers outside Hibernate must take ids the same way (see MedicineImportService) rather than rely
+-- on the column default. On a new database the sequences do not exist yet and Hibernate creates
+-- them with this increment.
+
+ALTER SEQUENCE IF EXISTS medicines_medicine_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS orders_order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS order_items_order_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS users_user_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS user_addresses_address_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS search_history_search_id_seq INCREMENT BY 50;
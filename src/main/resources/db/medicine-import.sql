@@ -0,0 +1,5 @@
+-- Support for the bulk medicine import.
+-- Idempotent: executed on every startup by MedicineImportService.
+
+-- Duplicate check: generic name + manufacturer, case-insensitive
+CREATE INDEX IF NOT EXISTS idx_medicine_lower_name_manufacturer ON medicines (lower(generic_name), lower(manufacturer));
@@ -0,0 +1,21 @@
+-- Full-text and trigram search support for the medicines table.
+-- Idempotent: executed on every startup by MedicineSearchService when search.full-text.enabled is true.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Weighted document kept current by PostgreSQL on every INSERT/UPDATE of a medicine
+ALTER TABLE medicines ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(generic_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(brand_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(composition, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(search_keywords, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(therapeutic_category, '')), 'C') ||
+        setweight(to_tsvector('simple', coalesce(manufacturer, '')), 'D')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_medicine_search_vector ON medicines USING GIN (search_vector);
+
+-- Trigram indexes for misspelled names ("paracetmol", "crocin adv")
+CREATE INDEX IF NOT EXISTS idx_medicine_generic_name_trgm ON medicines USING GIN (lower(generic_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_medicine_brand_name_trgm ON medicines USING GIN (lower(brand_name) gin_trgm_ops);
@@ -0,0 +1,70 @@
+-- search_history range-partitioned by month on search_date.
+-- Idempotent: executed on every startup by SearchHistoryPartitionService, as a single script (the
+-- block body contains semicolons). Monthly partitions are created and dropped by that service.
+--
+-- Hibernate creates search_history as a plain table on a new database, so a plain table is converted
+-- once, in one transaction: it is renamed to search_history_legacy, a partitioned table takes its
+-- name and the old table is attached as the partition for everything before next month. No rows are
+-- copied, and the legacy partition is dropped like any other once it falls out of retention.
+
+DO $$
+DECLARE
+    legacy_upper date := CAST(date_trunc('month', current_date) + interval '1 month' AS date);
+    legacy_index record;
+    foreign_key record;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'search_history'::regclass) <> 'r' THEN
+        RETURN;
+    END IF;
+
+    -- Rows written before search_date existed, when Hibernate could not add it as NOT NULL
+    ALTER TABLE search_history ADD COLUMN IF NOT EXISTS search_date date;
+    UPDATE search_history SET search_date = CAST(created_at AS date) WHERE search_date IS NULL;
+    ALTER TABLE search_history ALTER COLUMN search_date SET NOT NULL;
+
+    ALTER TABLE search_history RENAME TO search_history_legacy;
+
+    -- Index names are schema-wide; renaming a constraint's index renames the constraint too
+    FOR legacy_index IN
+        SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'search_history_legacy'::regclass
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', legacy_index.relname, left(legacy_index.relname, 56) || '_legacy');
+    END LOOP;
+
+    CREATE TABLE search_history (LIKE search_history_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (search_date);
+
+    -- Unique keys of a partitioned table must contain the partition key
+    ALTER TABLE search_history ADD CONSTRAINT search_history_pkey PRIMARY KEY (search_id, search_date);
+    ALTER TABLE search_history ADD CONSTRAINT uk_search_history_user_term_date
+        UNIQUE (user_id, search_type, search_term, search_date);
+    CREATE INDEX idx_search_history_user_date ON search_history (user_id, search_date);
+    CREATE INDEX idx_search_history_term ON search_history (search_term);
+    CREATE INDEX idx_search_history_date ON search_history (search_date, search_type);
+
+    -- Same names as Hibernate gave them, so schema updates recognise them
+    FOR foreign_key IN
+        SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint
+        WHERE conrelid = 'search_history_legacy'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE search_history ADD CONSTRAINT %I %s', foreign_key.conname, foreign_key.definition);
+    END LOOP;
+
+    -- Owned by the legacy column it would be dropped with that partition
+    IF to_regclass('search_history_search_id_seq') IS NOT NULL THEN
+        ALTER SEQUENCE search_history_search_id_seq OWNED BY search_history.search_id;
+    END IF;
+
+    -- Matching indexes and foreign keys on the legacy table are attached rather than rebuilt; its
+    -- primary key is replaced by one that includes search_date
+    EXECUTE format('ALTER TABLE search_history_legacy DROP CONSTRAINT %I',
+                   (SELECT conname FROM pg_constraint WHERE conrelid = 'search_history_legacy'::regclass AND contype = 'p'));
+    EXECUTE format('ALTER TABLE search_history ATTACH PARTITION search_history_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   legacy_upper);
+
+    -- Indexes the partitioned table does not have
+    DROP INDEX IF EXISTS idx_search_history_user_legacy;
+    DROP INDEX IF EXISTS idx_search_history_created_legacy;
+END;
+$$;
@@ -0,0 +1,7 @@
+-- Drops a cached medicine and bumps its version, so a read that started before the change cannot
+-- cache what it saw afterwards.
+-- KEYS[1] cached medicine, KEYS[2] its version, ARGV[1] version ttl (s)
+redis.call('INCR', KEYS[2])
+redis.call('EXPIRE', KEYS[2], ARGV[1])
+redis.call('DEL', KEYS[1])
+return 1
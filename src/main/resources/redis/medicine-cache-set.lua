@@ -0,0 +1,9 @@
+-- Caches a medicine read from the database, unless it was evicted while it was being read.
+-- KEYS[1] cached medicine, KEYS[2] its version, ARGV[1] version read before the database (empty
+-- when there was none), ARGV[2] medicine JSON, ARGV[3] ttl (s)
+-- Returns 1 cached, 0 skipped because an eviction bumped the version in between
+if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+return 1
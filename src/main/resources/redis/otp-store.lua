@@ -0,0 +1,14 @@
+-- Stores a new OTP unless one was issued less than the minimum interval ago.
+-- KEYS[1] otp hash, ARGV[1] otp, ARGV[2] now (ms), ARGV[3] min interval (ms), ARGV[4] ttl (s)
+-- Returns 0 when stored, otherwise the remaining wait in ms.
+local createdAt = tonumber(redis.call('HGET', KEYS[1], 'createdAt'))
+if createdAt then
+    local elapsed = tonumber(ARGV[2]) - createdAt
+    if elapsed < tonumber(ARGV[3]) then
+        return tonumber(ARGV[3]) - elapsed
+    end
+end
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], 'otp', ARGV[1], 'createdAt', ARGV[2], 'attempts', 0, 'verified', 0)
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+return 0
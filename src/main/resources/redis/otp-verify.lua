@@ -0,0 +1,21 @@
+-- Checks, counts and consumes an OTP in one step.
+-- KEYS[1] otp hash, ARGV[1] provided otp, ARGV[2] max attempts
+-- Returns {status, attempts}: 0 not found, 1 verified, 2 already used, 3 attempts exceeded, 4 invalid
+local otp = redis.call('HGET', KEYS[1], 'otp')
+if not otp then
+    return {0, 0}
+end
+if redis.call('HGET', KEYS[1], 'verified') == '1' then
+    return {2, 0}
+end
+local attempts = tonumber(redis.call('HGET', KEYS[1], 'attempts'))
+if attempts >= tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1])
+    return {3, attempts}
+end
+attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+if otp ~= ARGV[1] then
+    return {4, attempts}
+end
+redis.call('HSET', KEYS[1], 'verified', 1)
+return {1, attempts}
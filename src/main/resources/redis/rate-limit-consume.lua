@@ -0,0 +1,34 @@
+-- Takes one token from every bucket a request counts against, or from none of them.
+-- KEYS bucket keys, ARGV (capacity, period in ms) for each key in the same order.
+-- Returns {0, 0} when the request is allowed, otherwise {wait in ms, 1-based index of the bucket
+-- that needs it longest}.
+-- Each bucket is one value: the time its next token is due, refilling one token every
+-- period / capacity. A request fits while that time is less than a whole period ahead, which allows
+-- bursts of up to capacity. Redis' clock is used so every instance refills at the same pace.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local due = {}
+local wait = 0
+local blocked = 0
+for i = 1, #KEYS do
+    local capacity = tonumber(ARGV[i * 2 - 1])
+    local period = tonumber(ARGV[i * 2])
+    local next = math.max(tonumber(redis.call('GET', KEYS[i]) or now), now) + period / capacity
+    local delay = next - period - now
+    if delay > wait then
+        wait = delay
+        blocked = i
+    end
+    due[i] = next
+end
+
+if blocked > 0 then
+    return {math.ceil(wait), blocked}
+end
+
+-- Each key expires once its bucket would be full again
+for i = 1, #KEYS do
+    redis.call('SET', KEYS[i], string.format('%.3f', due[i]), 'PX', math.max(math.ceil(due[i] - now), 1))
+end
+return {0, 0}
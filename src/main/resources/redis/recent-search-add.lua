@@ -0,0 +1,27 @@
+-- Adds searches to a user's recent searches, scored by recency-weighted frequency.
+-- KEYS[1] zset of terms, ARGV[1] half-life (ms), ARGV[2] capacity, ARGV[3] ttl (s), followed by
+-- (term, number of searches, last searched at in epoch ms) triples.
+-- Every search weighs 2^(searched at / half-life), so it counts double one made a half-life earlier;
+-- a term's score is log2 of the sum of its weights, which keeps scores small and comparable.
+local halfLife = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local ln2 = math.log(2)
+
+for i = 4, #ARGV, 3 do
+    local score = tonumber(ARGV[i + 2]) / halfLife + math.log(tonumber(ARGV[i + 1])) / ln2
+    local current = redis.call('ZSCORE', KEYS[1], ARGV[i])
+    if current then
+        current = tonumber(current)
+        local high = math.max(current, score)
+        local low = math.min(current, score)
+        score = high + math.log(1 + 2 ^ (low - high)) / ln2
+    end
+    redis.call('ZADD', KEYS[1], score, ARGV[i])
+end
+
+local size = redis.call('ZCARD', KEYS[1])
+if size > capacity then
+    redis.call('ZREMRANGEBYRANK', KEYS[1], 0, size - capacity - 1)
+end
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+return math.min(size, capacity)
@@ -0,0 +1,50 @@
+-- Merges one node's search counts for a time bucket into the shared bucket.
+-- KEYS[1] sketch (u32 counters in a string), KEYS[2] candidate terms (zset scored by estimate)
+-- ARGV[1] ttl (s), ARGV[2] candidate capacity, ARGV[3] sketch depth, ARGV[4] number of counter
+-- updates, followed by that many (counter index, increment) pairs, then for every candidate term
+-- the term and its depth counter indices.
+-- Candidates are rescored from the merged counters and the zset is trimmed to the capacity highest.
+local capacity = tonumber(ARGV[2])
+local depth = tonumber(ARGV[3])
+local updates = tonumber(ARGV[4])
+
+local i = 5
+local ops = {}
+for n = 1, updates do
+    ops[#ops + 1] = 'INCRBY'
+    ops[#ops + 1] = 'u32'
+    ops[#ops + 1] = '#' .. ARGV[i]
+    ops[#ops + 1] = ARGV[i + 1]
+    i = i + 2
+    -- Flushed in chunks to stay under Lua's unpack limit
+    if #ops >= 4000 or n == updates then
+        redis.call('BITFIELD', KEYS[1], 'OVERFLOW', 'SAT', unpack(ops))
+        ops = {}
+    end
+end
+
+while i <= #ARGV do
+    local get = {}
+    for row = 1, depth do
+        get[#get + 1] = 'GET'
+        get[#get + 1] = 'u32'
+        get[#get + 1] = '#' .. ARGV[i + row]
+    end
+    local counts = redis.call('BITFIELD', KEYS[1], unpack(get))
+    local estimate = counts[1]
+    for row = 2, depth do
+        if counts[row] < estimate then
+            estimate = counts[row]
+        end
+    end
+    redis.call('ZADD', KEYS[2], estimate, ARGV[i])
+    i = i + depth + 1
+end
+
+local size = redis.call('ZCARD', KEYS[2])
+if size > capacity then
+    redis.call('ZREMRANGEBYRANK', KEYS[2], 0, size - capacity - 1)
+end
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+redis.call('EXPIRE', KEYS[2], ARGV[1])
+return math.min(size, capacity)
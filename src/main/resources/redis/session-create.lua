@@ -0,0 +1,6 @@
+-- Starts a new refresh-token family for one user device, replacing any previous session.
+-- KEYS[1] session hash, ARGV[1] family id, ARGV[2] token hash, ARGV[3] now (ms), ARGV[4] ttl (ms)
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], 'familyId', ARGV[1], 'tokenHash', ARGV[2], 'createdAt', ARGV[3], 'rotatedAt', ARGV[3])
+redis.call('PEXPIRE', KEYS[1], ARGV[4])
+return 1
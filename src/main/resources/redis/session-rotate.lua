@@ -0,0 +1,19 @@
+-- Swaps the current refresh token of a session for its successor.
+-- KEYS[1] session hash, ARGV[1] family id, ARGV[2] presented token hash, ARGV[3] new token hash,
+-- ARGV[4] now (ms), ARGV[5] ttl (ms)
+-- Returns 1 rotated, 0 no session, -1 token belongs to a replaced family, -2 reuse detected
+local session = redis.call('HMGET', KEYS[1], 'familyId', 'tokenHash')
+if not session[1] then
+    return 0
+end
+if session[1] ~= ARGV[1] then
+    return -1
+end
+if session[2] ~= ARGV[2] then
+    -- An already rotated token from this family was replayed: revoke the whole family
+    redis.call('DEL', KEYS[1])
+    return -2
+end
+redis.call('HSET', KEYS[1], 'tokenHash', ARGV[3], 'rotatedAt', ARGV[4])
+redis.call('PEXPIRE', KEYS[1], ARGV[5])
+return 1
@@ -0,0 +1,52 @@
+package com.dawasakhi.backend.benchmark;
+
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.repository.UserRepository;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Spring context the database benchmarks run in: the entities, JPA repositories, JdbcTemplate and
+ * transactions, without Mongo, Redis or the web layer.
+ *
+ * Needs a PostgreSQL database reachable with the spring.datasource.* settings from application.yml
+ * (override with -Dspring.datasource.url=... etc). Run a benchmark's main method from the IDE, or:
+ * mvn test-compile, then
+ * java -cp target/test-classes:target/classes:<test classpath> com.dawasakhi.backend.benchmark.<Benchmark>
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BenchmarkConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+        MongoAutoConfiguration.class,
+        MongoDataAutoConfiguration.class,
+        MongoRepositoriesAutoConfiguration.class,
+        RedisAutoConfiguration.class,
+        RedisRepositoriesAutoConfiguration.class
+    })
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    @EnableJpaAuditing
+    static class BenchmarkConfig {
+    }
+}
@@ -0,0 +1,99 @@
+package com.dawasakhi.backend.benchmark;
+
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in JwtAuthenticationFilter.
+ *
+ * Run the main method from the IDE, or: mvn test-compile, then
+ * java -cp target/test-classes:target/classes:<test classpath> com.dawasakhi.backend.benchmark.JwtParsingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "your_super_secure_jwt_secret_key_here_must_be_256_bits_long_for_hmac_sha256";
+    private static final String ISSUER = "dawasure-api";
+    private static final String AUDIENCE = "dawasure-client";
+
+    private JwtUtil jwtUtil;
+    private JwtParser jwtParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(null);
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", ISSUER);
+        ReflectionTestUtils.setField(jwtUtil, "audience", AUDIENCE);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiry", 900000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiry", 2592000000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", 10000L);
+        jwtUtil.init();
+        jwtParser = (JwtParser) ReflectionTestUtils.getField(jwtUtil, "jwtParser");
+
+        User user = new User("9876543211", "Benchmark User");
+        user.setUserId(42L);
+        token = jwtUtil.generateAccessToken(user);
+    }
+
+    // Previous filter path: isTokenExpired + extractUsername + extractRole, each rebuilding the key and parser
+    @Benchmark
+    public void tripleParse(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token).getExpiration());
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("role", String.class));
+    }
+
+    // Cache miss: one parse on the prebuilt parser
+    @Benchmark
+    public void singleParseUncached(Blackhole blackhole) {
+        blackhole.consume(new JwtUtil.VerifiedToken(jwtParser.parseClaimsJws(token).getBody(), null));
+    }
+
+    @Benchmark
+    public void singleParseCached(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.verifyToken(token));
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(ISSUER)
+                .requireAudience(AUDIENCE)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtParsingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.dawasakhi.backend.benchmark;
+
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database work of one successful login: the previous load + full-entity save against the
+ * single targeted UPDATE now used by AuthService. JWT signing and BCrypt are left out so the
+ * numbers only reflect the UserRepository traffic.
+ *
+ * Runs in a {@link BenchmarkContext}, against the PostgreSQL database described there.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoginUpdateBenchmark {
+
+    private static final int USER_COUNT = 1000;
+    private static final String PHONE_PREFIX = "70000";
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        for (int i = 0; i < USER_COUNT; i++) {
+            String phoneNumber = phoneNumber(i);
+            if (!userRepository.existsByPhoneNumber(phoneNumber)) {
+                userRepository.save(new User(phoneNumber, "Benchmark User " + i));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Previous AuthService.login: update login fields and save the entity
+    @Benchmark
+    public User loadAndSave() {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findByPhoneNumber(randomPhoneNumber()).orElseThrow();
+            user.setLastLoginAt(LocalDateTime.now());
+            user.setFailedLoginAttempts(0);
+            user.setPhoneVerified(true);
+            return userRepository.save(user);
+        });
+    }
+
+    @Benchmark
+    public User loadAndTargetedUpdate() {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findByPhoneNumber(randomPhoneNumber()).orElseThrow();
+            userRepository.updateLastLoginAndResetFailures(user.getUserId(), LocalDateTime.now(), true);
+            return user;
+        });
+    }
+
+    private static String randomPhoneNumber() {
+        return phoneNumber(ThreadLocalRandom.current().nextInt(USER_COUNT));
+    }
+
+    private static String phoneNumber(int index) {
+        return PHONE_PREFIX + String.format("%05d", index);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoginUpdateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
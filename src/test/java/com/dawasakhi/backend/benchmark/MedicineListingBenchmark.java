@@ -0,0 +1,124 @@
+package com.dawasakhi.backend.benchmark;
+
+import com.dawasakhi.backend.dto.response.MedicineCard;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.repository.MedicineRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One 20-row category page as the listing endpoints used to load it (full Medicine entities,
+ * every TEXT column included) against the MedicineCard projection they return now. Setup prints
+ * the serialized JSON size of both pages.
+ *
+ * Runs in a {@link BenchmarkContext}, against the PostgreSQL database described there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MedicineListingBenchmark {
+
+    private static final int MEDICINE_COUNT = 500;
+    private static final String CATEGORY = "Benchmark Listing";
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("genericName"));
+
+    private ConfigurableApplicationContext context;
+    private MedicineRepository medicineRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        context = BenchmarkContext.start();
+        medicineRepository = context.getBean(MedicineRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        if (medicineRepository.findByTherapeuticCategoryAndStatus(CATEGORY, Medicine.MedicineStatus.ACTIVE,
+                PageRequest.of(0, 1)).getTotalElements() < MEDICINE_COUNT) {
+            List<Medicine> medicines = new ArrayList<>();
+            for (int i = 0; i < MEDICINE_COUNT; i++) {
+                medicines.add(medicine(i));
+            }
+            medicineRepository.saveAll(medicines);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        System.out.printf("%nPayload per %d-row page: entities %d bytes, cards %d bytes%n", PAGE.getPageSize(),
+                objectMapper.writeValueAsBytes(entityPage().getContent()).length,
+                objectMapper.writeValueAsBytes(cardPage().getContent()).length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Previous listing query: the full row for every medicine on the page
+    @Benchmark
+    public Page<Medicine> entityPage() {
+        return transactionTemplate.execute(status -> medicineRepository.findByTherapeuticCategoryAndStatus(
+                CATEGORY, Medicine.MedicineStatus.ACTIVE, PAGE));
+    }
+
+    @Benchmark
+    public Page<MedicineCard> cardPage() {
+        return transactionTemplate.execute(status -> medicineRepository.findCardsByCategoryAndStatus(
+                CATEGORY, Medicine.MedicineStatus.ACTIVE, PAGE));
+    }
+
+    // Detail text sized like a real label so the columns the cards skip carry realistic weight
+    private static Medicine medicine(int index) {
+        String leaflet = "Take as directed by the physician. ".repeat(40);
+        Medicine medicine = new Medicine("Listing Generic " + index, "Benchmark Pharma",
+                "Paracetamol 500mg, Caffeine 30mg. ".repeat(10), Medicine.MedicineForm.TABLET,
+                BigDecimal.valueOf(20 + index % 80));
+        medicine.setBrandName("Listing Brand " + index);
+        medicine.setStrength("500mg");
+        medicine.setTherapeuticCategory(CATEGORY);
+        medicine.setStorageInstructions(leaflet);
+        medicine.setContraindications(leaflet);
+        medicine.setSideEffects(leaflet);
+        medicine.setUsageInstructions(leaflet);
+        medicine.setDosageInstructions(leaflet);
+        medicine.setImageUrls("[\"https://cdn.example.com/medicines/" + index + "/front.jpg\","
+                + "\"https://cdn.example.com/medicines/" + index + "/back.jpg\"]");
+        medicine.setTags("[\"fever\",\"pain\",\"headache\"]");
+        medicine.setSearchKeywords("fever pain headache cold flu body ache");
+        return medicine;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MedicineListingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
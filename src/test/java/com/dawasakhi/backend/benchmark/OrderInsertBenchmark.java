@@ -0,0 +1,114 @@
+package com.dawasakhi.backend.benchmark;
+
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.entity.Order;
+import com.dawasakhi.backend.entity.OrderItem;
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.entity.UserAddress;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of persisting one order with its cascaded items, for orders of 1, 10 and 50 lines.
+ * With pooled sequence ids Hibernate sends the order and all its items as JDBC batches; with
+ * IDENTITY ids every row was a separate INSERT round trip.
+ *
+ * Runs in a {@link BenchmarkContext}, against the PostgreSQL database described there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderInsertBenchmark {
+
+    private static final String PHONE_NUMBER = "7100000000";
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private User customer;
+    private UserAddress address;
+    private List<Medicine> medicines;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            customer = entityManager.createQuery("SELECT u FROM User u WHERE u.phoneNumber = :phone", User.class)
+                    .setParameter("phone", PHONE_NUMBER)
+                    .getResultStream().findFirst()
+                    .orElseGet(() -> {
+                        User user = new User(PHONE_NUMBER, "Order Benchmark");
+                        entityManager.persist(user);
+                        return user;
+                    });
+            address = new UserAddress(customer, "Order Benchmark", PHONE_NUMBER, "1 Benchmark Road",
+                    "Pune", "Maharashtra", "411001");
+            entityManager.persist(address);
+
+            medicines = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                Medicine medicine = new Medicine("Order Benchmark " + i, "Benchmark Pharma", "Paracetamol 500mg",
+                        Medicine.MedicineForm.TABLET, BigDecimal.valueOf(10 + i));
+                entityManager.persist(medicine);
+                medicines.add(medicine);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order placeOrder() {
+        return transactionTemplate.execute(status -> {
+            Order order = new Order(customer, address, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+            BigDecimal subtotal = BigDecimal.ZERO;
+            for (int i = 0; i < itemCount; i++) {
+                Medicine medicine = medicines.get(i);
+                OrderItem item = new OrderItem(order, medicine, 1, medicine.getSellingPrice());
+                order.addItem(item);
+                subtotal = subtotal.add(item.getFinalPrice());
+            }
+            order.setSubtotal(subtotal);
+            order.setTotalAmount(subtotal);
+            entityManager.persist(order);
+            return order;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
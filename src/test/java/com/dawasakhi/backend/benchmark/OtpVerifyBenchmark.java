@@ -0,0 +1,229 @@
+package com.dawasakhi.backend.benchmark;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.util.OtpUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Login throughput when many requests verify OTPs for the same phone number at once.
+ *
+ * Needs a Redis server (-Dredis.host / -Dredis.port, default localhost:6379). Run the main method
+ * from the IDE, or: mvn test-compile, then
+ * java -cp target/test-classes:target/classes:<test classpath> com.dawasakhi.backend.benchmark.OtpVerifyBenchmark
+ *
+ * The *Login benchmarks submit the current code from every thread, the *WrongGuess benchmarks a
+ * wrong one. After each iteration the benchmark prints how many codes were accepted more than once
+ * (must be 0) and how many "Invalid OTP" replies each code produced (must stay within the limit).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class OtpVerifyBenchmark {
+
+    private static final String PHONE_NUMBER = "9876543210";
+    private static final String WRONG_OTP = "abcdef";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private ObjectMapper objectMapper;
+    private OtpUtil otpUtil;
+
+    private volatile IssuedOtp current;
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong duplicateAccepts = new AtomicLong();
+    private final AtomicLong invalidReplies = new AtomicLong();
+    private final Set<Long> acceptedSequences = ConcurrentHashMap.newKeySet();
+    private boolean legacy;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        objectMapper = new ObjectMapper();
+        otpUtil = new OtpUtil(redisTemplate);
+        legacy = params.getBenchmark().contains("legacy");
+    }
+
+    @Setup(Level.Iteration)
+    public void issueFirstOtp() throws Exception {
+        issued.set(0);
+        duplicateAccepts.set(0);
+        invalidReplies.set(0);
+        acceptedSequences.clear();
+        reissue();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPerOtp() {
+        System.out.printf("%n  %d OTPs issued, %d accepted more than once, %.2f invalid replies per OTP (limit %d)%n",
+                issued.get(), duplicateAccepts.get(), (double) invalidReplies.get() / issued.get(), MAX_ATTEMPTS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    // Every thread submits the current code; the request that consumed it issues the next one.
+    // Threads still holding the previous code use up attempts, so an exhausted code is reissued too.
+    @Benchmark
+    public boolean scriptLogin() {
+        IssuedOtp otp = current;
+        OtpUtil.OtpResult result = otpUtil.verifyOtp(PHONE_NUMBER, otp.code, AppConstants.OTP_LOGIN);
+        if (result.isSuccess()) {
+            accept(otp);
+        } else if ("Maximum OTP attempts exceeded".equals(result.getError())) {
+            reissue();
+        }
+        return result.isSuccess();
+    }
+
+    @Benchmark
+    public boolean legacyLogin() throws Exception {
+        IssuedOtp otp = current;
+        String result = legacyVerify(otp.code);
+        if ("ok".equals(result)) {
+            accept(otp);
+        } else if ("exceeded".equals(result)) {
+            reissue();
+        }
+        return "ok".equals(result);
+    }
+
+    // Every thread submits a wrong code; the request that hit the attempt limit issues the next one
+    @Benchmark
+    public String scriptWrongGuess() {
+        String error = otpUtil.verifyOtp(PHONE_NUMBER, WRONG_OTP, AppConstants.OTP_LOGIN).getError();
+        if ("Invalid OTP".equals(error)) {
+            invalidReplies.incrementAndGet();
+        } else if ("Maximum OTP attempts exceeded".equals(error)) {
+            reissue();
+        }
+        return error;
+    }
+
+    @Benchmark
+    public String legacyWrongGuess() throws Exception {
+        String result = legacyVerify(WRONG_OTP);
+        if ("invalid".equals(result)) {
+            invalidReplies.incrementAndGet();
+        } else if ("exceeded".equals(result)) {
+            reissue();
+        }
+        return result;
+    }
+
+    private void accept(IssuedOtp otp) {
+        if (!acceptedSequences.add(otp.sequence)) {
+            duplicateAccepts.incrementAndGet();
+        }
+        reissue();
+    }
+
+    private void reissue() {
+        String code;
+        if (legacy) {
+            code = legacyStore();
+        } else {
+            otpUtil.invalidateOtp(PHONE_NUMBER, AppConstants.OTP_LOGIN);
+            code = otpUtil.storeOtp(PHONE_NUMBER, AppConstants.OTP_LOGIN).getOtp();
+        }
+        current = new IssuedOtp(issued.incrementAndGet(), code);
+    }
+
+    // Previous OtpUtil flow: GET + JSON decode, SET with incremented attempts, second SET on success
+    private String legacyVerify(String providedOtp) throws Exception {
+        String json = redisTemplate.opsForValue().get(legacyKey());
+        if (json == null) {
+            return "not_found";
+        }
+        LegacyOtpData data = objectMapper.readValue(json, LegacyOtpData.class);
+        if (data.verified) {
+            return "used";
+        }
+        if (data.attempts >= MAX_ATTEMPTS) {
+            redisTemplate.delete(legacyKey());
+            return "exceeded";
+        }
+        data.attempts++;
+        redisTemplate.opsForValue().set(legacyKey(), objectMapper.writeValueAsString(data),
+                AppConstants.CACHE_TTL_OTP, TimeUnit.SECONDS);
+        if (!data.otp.equals(providedOtp)) {
+            return "invalid";
+        }
+        data.verified = true;
+        redisTemplate.opsForValue().set(legacyKey(), objectMapper.writeValueAsString(data),
+                AppConstants.CACHE_TTL_OTP, TimeUnit.SECONDS);
+        return "ok";
+    }
+
+    private String legacyStore() {
+        try {
+            LegacyOtpData data = new LegacyOtpData();
+            data.otp = otpUtil.generateOtp();
+            redisTemplate.opsForValue().set(legacyKey(), objectMapper.writeValueAsString(data),
+                    AppConstants.CACHE_TTL_OTP, TimeUnit.SECONDS);
+            return data.otp;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String legacyKey() {
+        return AppConstants.CACHE_OTP + "legacy:" + AppConstants.OTP_LOGIN + ":" + PHONE_NUMBER;
+    }
+
+    private static final class IssuedOtp {
+        private final long sequence;
+        private final String code;
+
+        private IssuedOtp(long sequence, String code) {
+            this.sequence = sequence;
+            this.code = code;
+        }
+    }
+
+    public static class LegacyOtpData {
+        public String otp;
+        public int attempts;
+        public boolean verified;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OtpVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
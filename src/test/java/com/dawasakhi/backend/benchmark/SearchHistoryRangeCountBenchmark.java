@@ -0,0 +1,147 @@
+package com.dawasakhi.backend.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The date-range counts of SearchHistoryRepository over 50M searches spread across 13 months, for
+ * a week and a month of searches. "plain" is search_history as it was: one table filtered on
+ * created_at through its created_at index. "partitioned" is the monthly layout of
+ * db/search-history-partitions.sql filtered on search_date, where PostgreSQL only scans the
+ * partitions the range falls in.
+ *
+ * Setup builds both copies in tables of their own (search_history_benchmark_plain and
+ * search_history_benchmark) the first time, which takes a while; later runs reuse them. They are
+ * created LIKE search_history, so start the application once against the database beforehand.
+ *
+ * Runs in a {@link BenchmarkContext}, against the PostgreSQL database described there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchHistoryRangeCountBenchmark {
+
+    private static final long ROW_COUNT = 50_000_000L;
+    private static final int USER_COUNT = 1000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int MONTHS = 13;
+    private static final LocalDate RANGE_START = LocalDate.of(2025, 6, 2);
+
+    private static final String PLAIN = "search_history_benchmark_plain";
+    private static final String PARTITIONED = "search_history_benchmark";
+
+    @Param({"plain", "partitioned"})
+    private String layout;
+
+    @Param({"7", "30"})
+    private int rangeDays;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private String countSql;
+    private String countDistinctUsersSql;
+    private Object[] range;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // The partitioned copy is created last, so it only exists once both are complete
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, PARTITIONED) != Boolean.TRUE) {
+            createTables();
+        }
+
+        LocalDate rangeEnd = RANGE_START.plusDays(rangeDays - 1L);
+        if ("plain".equals(layout)) {
+            countSql = "SELECT count(*) FROM " + PLAIN + " WHERE created_at BETWEEN ? AND ?";
+            countDistinctUsersSql = "SELECT count(DISTINCT user_id) FROM " + PLAIN + " WHERE created_at BETWEEN ? AND ?";
+            range = new Object[]{RANGE_START.atStartOfDay(), rangeEnd.atTime(23, 59, 59)};
+        } else {
+            countSql = "SELECT count(*) FROM " + PARTITIONED + " WHERE search_date BETWEEN ? AND ?";
+            countDistinctUsersSql = "SELECT count(DISTINCT user_id) FROM " + PARTITIONED + " WHERE search_date BETWEEN ? AND ?";
+            range = new Object[]{RANGE_START, rangeEnd};
+        }
+        System.out.printf("%n%s, %d days:%n", layout, rangeDays);
+        jdbcTemplate.queryForList("EXPLAIN " + countSql, String.class, range).forEach(System.out::println);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // countBySearchDateBetween, formerly countByCreatedAtBetween
+    @Benchmark
+    public Long countByDateRange() {
+        return jdbcTemplate.queryForObject(countSql, Long.class, range);
+    }
+
+    @Benchmark
+    public Long countDistinctUsersByDateRange() {
+        return jdbcTemplate.queryForObject(countDistinctUsersSql, Long.class, range);
+    }
+
+    // Each user searches a different set of terms every day, so the unique key holds
+    private void createTables() {
+        long days = ChronoUnit.DAYS.between(FIRST_DAY, FIRST_DAY.plusMonths(MONTHS));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + PLAIN);
+        jdbcTemplate.execute("CREATE TABLE " + PLAIN + " (LIKE search_history INCLUDING DEFAULTS)");
+        jdbcTemplate.execute("INSERT INTO " + PLAIN + " (search_id, user_id, search_term, search_type, search_count, " +
+                "result_count, search_date, created_at, updated_at) " +
+                "SELECT n + 1, 1 + n % " + USER_COUNT + ", " +
+                "'term ' || ((n / " + USER_COUNT + " / " + days + " + n % " + USER_COUNT + " * 7) % 5000), " +
+                "CASE WHEN n % 4 = 0 THEN 'CATEGORY' ELSE 'MEDICINE' END, 1 + n % 3, n % 50, day, " +
+                "day + (n % 86400) * interval '1 second', day + (n % 86400) * interval '1 second' " +
+                "FROM (SELECT n, DATE '" + FIRST_DAY + "' + CAST((n / " + USER_COUNT + ") % " + days + " AS int) AS day " +
+                "FROM generate_series(0, " + (ROW_COUNT - 1) + ") n) s");
+        // The indexes search_history had before it was partitioned
+        jdbcTemplate.execute("ALTER TABLE " + PLAIN + " ADD PRIMARY KEY (search_id)");
+        jdbcTemplate.execute("CREATE INDEX ON " + PLAIN + " (user_id)");
+        jdbcTemplate.execute("CREATE INDEX ON " + PLAIN + " (search_term)");
+        jdbcTemplate.execute("CREATE INDEX ON " + PLAIN + " (created_at)");
+        jdbcTemplate.execute("ANALYZE " + PLAIN);
+
+        DateTimeFormatter suffix = DateTimeFormatter.ofPattern("yyyyMM");
+        jdbcTemplate.execute("CREATE TABLE " + PARTITIONED + " (LIKE search_history INCLUDING DEFAULTS) " +
+                "PARTITION BY RANGE (search_date)");
+        for (LocalDate month = FIRST_DAY; month.isBefore(FIRST_DAY.plusMonths(MONTHS)); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE " + PARTITIONED + "_p" + suffix.format(month) + " PARTITION OF " +
+                    PARTITIONED + " FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')");
+        }
+        jdbcTemplate.execute("INSERT INTO " + PARTITIONED + " SELECT * FROM " + PLAIN);
+        jdbcTemplate.execute("ALTER TABLE " + PARTITIONED + " ADD PRIMARY KEY (search_id, search_date)");
+        jdbcTemplate.execute("ALTER TABLE " + PARTITIONED + " ADD UNIQUE (user_id, search_type, search_term, search_date)");
+        jdbcTemplate.execute("CREATE INDEX ON " + PARTITIONED + " (user_id, search_date)");
+        jdbcTemplate.execute("CREATE INDEX ON " + PARTITIONED + " (search_term)");
+        jdbcTemplate.execute("CREATE INDEX ON " + PARTITIONED + " (search_date, search_type)");
+        jdbcTemplate.execute("ANALYZE " + PARTITIONED);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SearchHistoryRangeCountBenchmark.class.getSimpleName()).build()).run();
+    }
+}
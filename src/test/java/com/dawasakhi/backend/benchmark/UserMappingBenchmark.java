@@ -0,0 +1,87 @@
+package com.dawasakhi.backend.benchmark;
+
+import com.dawasakhi.backend.config.BeanConfig;
+import com.dawasakhi.backend.dto.response.UserResponse;
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.mapper.UserMapper;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one 100-row page of users into UserResponse objects, as UserService.getAllUsers
+ * does: the ModelMapper bean from BeanConfig against the generated UserMapper.
+ *
+ * Run the main method from the IDE, or: mvn test-compile, then
+ * java -cp target/test-classes:target/classes:<test classpath> com.dawasakhi.backend.benchmark.UserMappingBenchmark
+ * Add -prof gc to compare allocation per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMappingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    private Page<User> page;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new BeanConfig().modelMapper();
+        userMapper = Mappers.getMapper(UserMapper.class);
+
+        List<User> users = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User user = new User("98765" + String.format("%05d", i), "Benchmark User " + i);
+            user.setUserId((long) i + 1);
+            user.setEmail("user" + i + "@example.com");
+            user.setDateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i));
+            user.setGender(User.Gender.FEMALE);
+            user.setPhoneVerified(true);
+            user.setLastLoginAt(LocalDateTime.now());
+            user.setMarketingConsent(i % 2 == 0);
+            users.add(user);
+        }
+        page = new PageImpl<>(users, PageRequest.of(0, PAGE_SIZE), 10_000);
+    }
+
+    @Benchmark
+    public Page<UserResponse> modelMapper() {
+        return page.map(user -> modelMapper.map(user, UserResponse.class));
+    }
+
+    @Benchmark
+    public Page<UserResponse> generatedMapper() {
+        return page.map(userMapper::toResponse);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserMappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
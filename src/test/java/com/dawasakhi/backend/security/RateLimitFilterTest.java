@@ -0,0 +1,215 @@
+package com.dawasakhi.backend.security;
+
+import com.dawasakhi.backend.config.AppConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Requests are counted per IP and per route key before they reach the chain, and turned away with
+ * 429 and Retry-After once a bucket is empty, with the body still intact for the controller, read
+ * blocking or through a ReadListener. Phone routes refuse bodies they cannot read a phone number from.
+ */
+class RateLimitFilterTest {
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final RateLimitFilter filter = new RateLimitFilter();
+    private final List<String> forwardedBodies = new ArrayList<>();
+    private final FilterChain chain = (request, response) ->
+            forwardedBodies.add(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimiter, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(rateLimiter, "localCacheMaxSize", 1000L);
+        rateLimiter.init();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("security.rate-limit.routes[0].name", "send-otp")
+                .withProperty("security.rate-limit.routes[0].path", "/auth/send-otp")
+                .withProperty("security.rate-limit.routes[0].method", "POST")
+                .withProperty("security.rate-limit.routes[0].key", "PHONE")
+                .withProperty("security.rate-limit.routes[0].capacity", "2")
+                .withProperty("security.rate-limit.routes[0].period", "10m");
+        ReflectionTestUtils.setField(filter, "rateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(filter, "environment", environment);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "requestsPerHour", 5L);
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void phoneLimitCountsEachNumberAndForwardsTheBody() throws Exception {
+        redisUnavailable();
+
+        assertEquals(200, sendOtp("9000000001").getStatus());
+        assertEquals(200, sendOtp("9000000001").getStatus());
+        MockHttpServletResponse refused = sendOtp("9000000001");
+        assertEquals(200, sendOtp("9000000002").getStatus());
+
+        assertEquals(429, refused.getStatus());
+        long retryAfter = Long.parseLong(refused.getHeader("Retry-After"));
+        assertTrue(retryAfter > 200 && retryAfter <= 300, "one token refills every 5 minutes: " + retryAfter);
+        assertTrue(refused.getContentAsString().contains(AppConstants.ERROR_RATE_LIMIT_EXCEEDED));
+        assertEquals(3, forwardedBodies.size());
+        assertEquals(otpBody("9000000002"), forwardedBodies.get(2));
+    }
+
+    @Test
+    void everyRouteCountsAgainstTheIpLimit() throws Exception {
+        redisUnavailable();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, get("/medicines/search").getStatus());
+        }
+        assertEquals(429, get("/medicines/facets").getStatus());
+        // Health checks are never limited
+        assertEquals(200, get("/actuator/health").getStatus());
+    }
+
+    @Test
+    void phoneRoutesRefuseBodiesThePhoneNumberCannotBeReadFrom() throws Exception {
+        redisUnavailable();
+
+        // Padding past the read limit must not skip the phone's bucket
+        String padded = "{\"phoneNumber\":\"9000000001\"," + " ".repeat(9000) + "\"otpType\":\"LOGIN\"}";
+        MockHttpServletResponse tooLarge = post("/auth/send-otp", padded);
+        MockHttpServletResponse noPhone = post("/auth/send-otp", "{\"otpType\":\"LOGIN\"}");
+
+        assertEquals(413, tooLarge.getStatus());
+        assertEquals(400, noPhone.getStatus());
+        assertTrue(forwardedBodies.isEmpty());
+    }
+
+    @Test
+    void bufferedBodyCanBeReadWithAReadListener() throws Exception {
+        redisUnavailable();
+        List<String> read = new ArrayList<>();
+        FilterChain asyncChain = (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    read.add(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    read.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    read.add("error");
+                }
+            });
+        };
+
+        MockHttpServletRequest request = request("POST", "/auth/send-otp");
+        request.setContent(otpBody("9000000001").getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(request, new MockHttpServletResponse(), asyncChain);
+
+        assertEquals(List.of(otpBody("9000000001"), "done"), read);
+    }
+
+    @Test
+    void authenticatedRequestsDoNotCountAgainstTheIpLimit() throws Exception {
+        redisUnavailable();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("9000000001", null, Collections.emptyList()));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, get("/medicines/search").getStatus());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void emptyBucketIsRememberedLocallyUntilItsNextToken() throws Exception {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(Arrays.asList(30_000L, 1L));
+
+        MockHttpServletResponse first = get("/medicines/search");
+        MockHttpServletResponse second = get("/medicines/search");
+
+        assertEquals(429, first.getStatus());
+        assertEquals("30", first.getHeader("Retry-After"));
+        assertEquals(429, second.getStatus());
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void redisUnavailable() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("Redis down"));
+    }
+
+    private MockHttpServletResponse sendOtp(String phoneNumber) throws Exception {
+        return post("/auth/send-otp", otpBody(phoneNumber));
+    }
+
+    private MockHttpServletResponse post(String path, String body) throws Exception {
+        MockHttpServletRequest request = request("POST", path);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return filter(request);
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        return filter(request("GET", path));
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1" + path);
+        request.setContextPath("/api/v1");
+        request.setRemoteAddr("203.0.113.7");
+        return request;
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String otpBody(String phoneNumber) {
+        return "{\"phoneNumber\":\"" + phoneNumber + "\",\"otpType\":\"LOGIN\"}";
+    }
+}
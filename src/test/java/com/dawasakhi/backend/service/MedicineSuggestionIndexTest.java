@@ -0,0 +1,120 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.dto.response.MedicineSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Random puts, re-scores and removals over names that share long prefixes: after every change each
+ * prefix still suggests exactly the best-scoring medicines a full scan finds, including once removals
+ * have used up a node's backup entries and it had to be refilled from its children. A refill takes no
+ * more from a child's list than that list knows about its subtree.
+ */
+class MedicineSuggestionIndexTest {
+
+    private static final String[] PREFIXES = {"a", "b", "ab", "ba", "aa", "abc", "cab", "ccc", "abca"};
+
+    @Test
+    void suggestionsMatchAFullScanThroughPutsAndRemovals() {
+        Random random = new Random(7);
+        MedicineSuggestionIndex index = new MedicineSuggestionIndex();
+        Map<Long, Indexed> expected = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            long medicineId = 1 + random.nextInt(300);
+            // Half the changes hit a medicine that is suggested right now, which drains ranked lists fastest
+            List<Long> suggested = scan(expected, PREFIXES[random.nextInt(PREFIXES.length)]);
+            if (random.nextBoolean() && !suggested.isEmpty()) {
+                medicineId = suggested.get(0);
+            }
+            if (random.nextInt(3) == 0) {
+                index.remove(medicineId);
+                expected.remove(medicineId);
+            } else {
+                Indexed medicine = new Indexed(medicineId, word(random), word(random), random.nextInt(50));
+                index.put(new MedicineSuggestion(medicineId, medicine.name, null, null, false),
+                    medicine.composition, medicine.score);
+                expected.put(medicineId, medicine);
+            }
+
+            for (String prefix : PREFIXES) {
+                assertEquals(scan(expected, prefix), ids(index.suggest(prefix, MedicineSuggestionIndex.MAX_SUGGESTIONS)),
+                    "prefix " + prefix + " after step " + step);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+    }
+
+    @Test
+    void refillOnlyTrustsAPartlyDrainedChildAsFarAsItsList() {
+        MedicineSuggestionIndex index = new MedicineSuggestionIndex();
+        // "aa" ranks ids 1-20 of its 25, "ab" holds one top medicine and five weaker ones
+        for (long id = 1; id <= 25; id++) {
+            put(index, id, "aa", 101 - id);
+        }
+        put(index, 100, "ab", 1000);
+        for (long id = 101; id <= 105; id++) {
+            put(index, id, "ab", 171 - id);
+        }
+
+        // "aa" is left with ids 11-20 listed and 21-25 unlisted; "a" refills without the top medicine
+        for (long id = 1; id <= 10; id++) {
+            index.remove(id);
+        }
+        index.remove(100L);
+        index.remove(11L);
+
+        assertEquals(List.of(12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L, 21L), ids(index.suggest("a", 10)));
+    }
+
+    private static void put(MedicineSuggestionIndex index, long medicineId, String name, long score) {
+        index.put(new MedicineSuggestion(medicineId, name, null, null, false), null, score);
+    }
+
+    private static List<Long> scan(Map<Long, Indexed> medicines, String prefix) {
+        return medicines.values().stream()
+            .filter(medicine -> medicine.name.startsWith(prefix) || medicine.composition.startsWith(prefix))
+            .sorted(Comparator.comparingLong((Indexed medicine) -> -medicine.score).thenComparingLong(medicine -> medicine.id))
+            .limit(MedicineSuggestionIndex.MAX_SUGGESTIONS)
+            .map(medicine -> medicine.id)
+            .toList();
+    }
+
+    private static List<Long> ids(List<MedicineSuggestion> suggestions) {
+        List<Long> ids = new ArrayList<>();
+        suggestions.forEach(suggestion -> ids.add(suggestion.getMedicineId()));
+        return ids;
+    }
+
+    // Two to five letters out of three, so most words share their first few characters
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static final class Indexed {
+        private final long id;
+        private final String name;
+        private final String composition;
+        private final long score;
+
+        private Indexed(long id, String name, String composition, long score) {
+            this.id = id;
+            this.name = name;
+            this.composition = composition;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.dto.request.CreateOrderRequest;
+import com.dawasakhi.backend.dto.response.OrderResponse;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.entity.UserAddress;
+import com.dawasakhi.backend.repository.MedicineRepository;
+import com.dawasakhi.backend.repository.UserAddressRepository;
+import com.dawasakhi.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reading a page of order history costs the same number of statements however many orders, items and
+ * medicines the page holds: one for the page of ids, one for the total, one for the orders with everything
+ * the response needs.
+ *
+ * Needs the PostgreSQL database and Redis configured in application.yml, so it only runs on request:
+ * mvn test -Dit.database=true -Dtest=OrderHistoryQueryCountTest
+ */
+@SpringBootTest(classes = OrderPlacementConcurrencyTest.TestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "it.database", matches = "true")
+class OrderHistoryQueryCountTest {
+
+    private static final String PHONE = "7300000001";
+    private static final String MEDICINE_PREFIX = "History Test Medicine ";
+    private static final int ORDERS = 12;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserAddressRepository userAddressRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> placedOrderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        List<Medicine> medicines = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Medicine medicine = new Medicine(MEDICINE_PREFIX + i, "Test Pharma", "Test " + i,
+                Medicine.MedicineForm.TABLET, BigDecimal.valueOf(10 + i));
+            medicine.setStockQuantity(1000);
+            medicines.add(medicine);
+        }
+        medicines = medicineRepository.saveAll(medicines);
+
+        User user = userRepository.save(new User(PHONE, "History Tester"));
+        UserAddress address = userAddressRepository.save(new UserAddress(user, user.getFullName(), PHONE,
+            "1 Test Street", "Pune", "Maharashtra", "411001"));
+
+        // Every order has several items on distinct medicines, so lazy loading would show up as extra statements
+        for (int i = 0; i < ORDERS; i++) {
+            List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+            for (int m = 0; m <= i % medicines.size(); m++) {
+                CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+                item.setMedicineId(medicines.get(m).getMedicineId());
+                item.setQuantity(1);
+                items.add(item);
+            }
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setDeliveryAddressId(address.getAddressId());
+            request.setItems(items);
+            placedOrderIds.add(0, orderService.placeOrder(PHONE, null, request).getOrderId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void pageOfHistoryTakesThreeStatementsWhateverItsSize() {
+        for (int size : new int[] {1, 5, 10}) {
+            Statistics statistics = statistics();
+            Page<OrderResponse> page = orderService.getOrderHistory(PHONE, 0, size);
+
+            assertEquals(3, statistics.getPrepareStatementCount(), "statements for a page of " + size);
+            assertEquals(size, page.getNumberOfElements());
+            assertEquals(ORDERS, page.getTotalElements());
+            for (OrderResponse order : page.getContent()) {
+                assertTrue(!order.getItems().isEmpty());
+                assertTrue(order.getItems().get(0).getMedicine().getGenericName().startsWith(MEDICINE_PREFIX));
+            }
+        }
+    }
+
+    @Test
+    void historyIsNewestFirstAcrossPages() {
+        List<Long> seen = new ArrayList<>();
+        for (int page = 0; page * 5 < ORDERS; page++) {
+            orderService.getOrderHistory(PHONE, page, 5).forEach(order -> seen.add(order.getOrderId()));
+        }
+
+        assertEquals(placedOrderIds, seen);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private void cleanUp() {
+        String users = "SELECT user_id FROM users WHERE phone_number = '" + PHONE + "'";
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (SELECT order_id FROM orders WHERE customer_id IN (" + users + "))");
+        jdbcTemplate.update("DELETE FROM orders WHERE customer_id IN (" + users + ")");
+        jdbcTemplate.update("DELETE FROM user_addresses WHERE user_id IN (" + users + ")");
+        jdbcTemplate.update("DELETE FROM users WHERE user_id IN (" + users + ")");
+        jdbcTemplate.update("DELETE FROM medicines WHERE generic_name LIKE '" + MEDICINE_PREFIX + "%'");
+        placedOrderIds.clear();
+    }
+}
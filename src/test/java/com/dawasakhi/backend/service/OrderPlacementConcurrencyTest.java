@@ -0,0 +1,273 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.DawaSakhiBackendApplication;
+import com.dawasakhi.backend.config.AppConstants;
+import com.dawasakhi.backend.dto.request.CreateOrderRequest;
+import com.dawasakhi.backend.dto.response.OrderResponse;
+import com.dawasakhi.backend.entity.Medicine;
+import com.dawasakhi.backend.entity.User;
+import com.dawasakhi.backend.entity.UserAddress;
+import com.dawasakhi.backend.exception.DawaSureException;
+import com.dawasakhi.backend.repository.MedicineRepository;
+import com.dawasakhi.backend.repository.UserAddressRepository;
+import com.dawasakhi.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hundreds of buyers ordering the same medicine at once: stock never oversells, never goes negative and
+ * is not left stale in the medicine cache, and a submission repeated in parallel under one Idempotency-Key creates a single order, also once
+ * Redis no longer has the key, which is then still refused for a different order.
+ *
+ * Needs the PostgreSQL database and Redis configured in application.yml, so it only runs on request:
+ * mvn test -Dit.database=true -Dtest=OrderPlacementConcurrencyTest
+ */
+@SpringBootTest(classes = OrderPlacementConcurrencyTest.TestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIfSystemProperty(named = "it.database", matches = "true")
+class OrderPlacementConcurrencyTest {
+
+    private static final String PHONE_PREFIX = "72";
+    private static final int BUYERS = 300;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private MedicineService medicineService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserAddressRepository userAddressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private Medicine medicine;
+    private final List<UserAddress> addresses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        medicine = new Medicine("Concurrency Test Paracetamol", "Test Pharma", "Paracetamol 500mg",
+            Medicine.MedicineForm.TABLET, BigDecimal.valueOf(25));
+        medicine.setStockQuantity(STOCK);
+        medicine = medicineRepository.save(medicine);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            users.add(new User(PHONE_PREFIX + String.format("%08d", i), "Buyer " + i));
+        }
+        for (User user : userRepository.saveAll(users)) {
+            addresses.add(new UserAddress(user, user.getFullName(), user.getPhoneNumber(), "1 Test Street",
+                "Pune", "Maharashtra", "411001"));
+        }
+        userAddressRepository.saveAll(addresses);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void parallelBuyersNeverOversellOneMedicine() throws Exception {
+        // Cached before the orders, so the assertion below fails if reservations leave it stale
+        assertEquals(STOCK, medicineService.getMedicineDetails(medicine.getMedicineId()).getStockQuantity());
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+
+        runConcurrently(BUYERS, i -> () -> {
+            UserAddress address = addresses.get(i);
+            try {
+                orderService.placeOrder(address.getPhoneNumber(), null, orderRequest(address, 1));
+                placed.incrementAndGet();
+            } catch (DawaSureException e) {
+                assertEquals("INSUFFICIENT_STOCK", e.getErrorCode());
+                outOfStock.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(STOCK, placed.get());
+        assertEquals(BUYERS - STOCK, outOfStock.get());
+        assertEquals(0, medicineRepository.findStockQuantity(medicine.getMedicineId()).orElseThrow());
+        assertEquals(0, medicineService.getMedicineDetails(medicine.getMedicineId()).getStockQuantity());
+        assertEquals(STOCK, orderedQuantity());
+    }
+
+    @Test
+    void repeatedSubmissionsWithOneIdempotencyKeyPlaceOneOrder() throws Exception {
+        UserAddress address = addresses.get(0);
+        String idempotencyKey = UUID.randomUUID().toString();
+        Set<Long> orderIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger inProgress = new AtomicInteger();
+
+        runConcurrently(50, i -> () -> {
+            try {
+                orderIds.add(orderService.placeOrder(address.getPhoneNumber(), idempotencyKey, orderRequest(address, 2)).getOrderId());
+            } catch (DawaSureException e) {
+                assertEquals("IDEMPOTENCY_KEY_IN_PROGRESS", e.getErrorCode());
+                inProgress.incrementAndGet();
+            }
+            return null;
+        });
+
+        // Once the first submission has committed, a retry gets the same order back
+        OrderResponse retried = orderService.placeOrder(address.getPhoneNumber(), idempotencyKey, orderRequest(address, 2));
+        orderIds.add(retried.getOrderId());
+
+        assertEquals(1, orderIds.size());
+        assertEquals(2, orderedQuantity());
+        assertEquals(STOCK - 2, medicineRepository.findStockQuantity(medicine.getMedicineId()).orElseThrow());
+    }
+
+    @Test
+    void retryAfterRedisLostTheIdempotencyKeyGetsTheSameOrder() {
+        UserAddress address = addresses.get(0);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        OrderResponse placed = orderService.placeOrder(address.getPhoneNumber(), idempotencyKey, orderRequest(address, 2));
+        stringRedisTemplate.delete(stringRedisTemplate.keys(AppConstants.CACHE_ORDER_IDEMPOTENCY + "*:" + idempotencyKey));
+        OrderResponse retried = orderService.placeOrder(address.getPhoneNumber(), idempotencyKey, orderRequest(address, 2));
+
+        assertEquals(placed.getOrderId(), retried.getOrderId());
+        assertEquals(2, orderedQuantity());
+        assertEquals(STOCK - 2, medicineRepository.findStockQuantity(medicine.getMedicineId()).orElseThrow());
+    }
+
+    @Test
+    void reusingAKeyRedisLostForADifferentOrderIsRejected() {
+        UserAddress address = addresses.get(0);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        orderService.placeOrder(address.getPhoneNumber(), idempotencyKey, orderRequest(address, 2));
+        stringRedisTemplate.delete(stringRedisTemplate.keys(AppConstants.CACHE_ORDER_IDEMPOTENCY + "*:" + idempotencyKey));
+        DawaSureException reused = assertThrows(DawaSureException.class,
+            () -> orderService.placeOrder(address.getPhoneNumber(), idempotencyKey, orderRequest(address, 3)));
+
+        assertEquals("IDEMPOTENCY_KEY_REUSED", reused.getErrorCode());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getHttpStatus());
+        assertEquals(2, orderedQuantity());
+        assertEquals(STOCK - 2, medicineRepository.findStockQuantity(medicine.getMedicineId()).orElseThrow());
+    }
+
+    private CreateOrderRequest orderRequest(UserAddress address, int quantity) {
+        CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+        item.setMedicineId(medicine.getMedicineId());
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setDeliveryAddressId(address.getAddressId());
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    // All tasks are released together once every worker is waiting on the start gate
+    private static void runConcurrently(int tasks, Function<Integer, Callable<Void>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(tasks, 64));
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                Callable<Void> callable = task.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return callable.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private long orderedQuantity() {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT COALESCE(SUM(quantity), 0) AS total FROM order_items WHERE medicine_id = ?", medicine.getMedicineId());
+        return ((Number) row.get("total")).longValue();
+    }
+
+    // The application's configuration without scheduled jobs, and without scanning the benchmarks'
+    // own boot configurations that sit on the test classpath
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+        MongoAutoConfiguration.class,
+        MongoDataAutoConfiguration.class,
+        MongoRepositoriesAutoConfiguration.class
+    })
+    @AutoConfigurationPackage(basePackageClasses = DawaSakhiBackendApplication.class)
+    @ComponentScan(basePackageClasses = DawaSakhiBackendApplication.class, excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = DawaSakhiBackendApplication.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.dawasakhi\\.backend\\.benchmark\\..*")
+    })
+    @EnableJpaAuditing
+    @EnableCaching
+    @EnableAsync
+    static class TestApplication {
+    }
+
+    private void cleanUp() {
+        String users = "SELECT user_id FROM users WHERE phone_number LIKE '" + PHONE_PREFIX + "%' AND full_name LIKE 'Buyer %'";
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (SELECT order_id FROM orders WHERE customer_id IN (" + users + "))");
+        jdbcTemplate.update("DELETE FROM orders WHERE customer_id IN (" + users + ")");
+        jdbcTemplate.update("DELETE FROM user_addresses WHERE user_id IN (" + users + ")");
+        jdbcTemplate.update("DELETE FROM users WHERE user_id IN (" + users + ")");
+        jdbcTemplate.update("DELETE FROM medicines WHERE generic_name = 'Concurrency Test Paracetamol'");
+        addresses.clear();
+    }
+}
@@ -0,0 +1,96 @@
+package com.dawasakhi.backend.service;
+
+import com.dawasakhi.backend.entity.SearchHistory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Search events are coalesced per user, term and day into one batched upsert per window, and shed
+ * instead of blocking the caller once the buffer is full.
+ */
+class SearchHistoryServiceTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 3, 14, 9, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SearchHistoryService service = new SearchHistoryService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "searchTrendingService", mock(SearchTrendingService.class));
+        ReflectionTestUtils.setField(service, "recentSearchService", mock(RecentSearchService.class));
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "bufferCapacity", 4);
+        // Long enough that only the explicit flush() calls below write anything
+        ReflectionTestUtils.setField(service, "flushIntervalMillis", 3_600_000L);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void repeatsOfAUsersSearchInOneWindowBecomeOneIncrement() {
+        service.record(event("9000000001", "Dolo 650", 12, MORNING));
+        service.record(event("9000000001", "  dolo   650 ", 9, MORNING.plusMinutes(1)));
+        service.record(event("9000000002", "dolo 650", 9, MORNING.plusMinutes(2)));
+        service.record(event("9000000001", "dolo 650", 9, MORNING.plusDays(1)));
+
+        assertEquals(3, service.flush());
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(3, rows.getValue().size());
+        assertArrayEquals(new Object[] {"dolo 650", "MEDICINE", LocalDate.of(2026, 3, 14), 2, 9,
+            MORNING, MORNING.plusMinutes(1), "9000000001"}, rows.getValue().get(0));
+        assertEquals("9000000002", rows.getValue().get(1)[7]);
+        assertEquals(LocalDate.of(2026, 3, 15), rows.getValue().get(2)[2]);
+        assertEquals(0, service.getBufferedCount());
+    }
+
+    @Test
+    void fullBufferShedsEventsWithoutBlocking() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(service.record(event("9000000001", "term " + i, 1, MORNING)));
+        }
+
+        assertFalse(service.record(event("9000000001", "one too many", 1, MORNING)));
+        assertEquals(4, service.getBufferedCount());
+    }
+
+    @Test
+    void emptyWindowWritesNothing() {
+        service.record(event("9000000001", "   ", 0, MORNING));
+
+        assertEquals(0, service.flush());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private static SearchHistoryService.SearchEvent event(String phone, String term, long results, LocalDateTime at) {
+        return new SearchHistoryService.SearchEvent(phone, term, SearchHistory.SearchType.MEDICINE, results, at);
+    }
+}
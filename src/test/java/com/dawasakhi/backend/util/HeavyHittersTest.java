@@ -0,0 +1,75 @@
+package com.dawasakhi.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+
+    private static final int DISTINCT_TERMS = 20_000;
+    private static final int SEARCHES = 500_000;
+
+    @Test
+    void skewedStreamKeepsTheTopTermsWithBoundedOvercount() {
+        Map<String, Integer> exact = new HashMap<>();
+        List<String> stream = zipfStream(exact);
+        HeavyHitters hitters = new HeavyHitters(4, 2048, 100);
+        for (String term : stream) {
+            hitters.add(term, 1);
+        }
+
+        List<String> exactTop = new ArrayList<>(exact.keySet());
+        exactTop.sort((a, b) -> Integer.compare(exact.get(b), exact.get(a)));
+        long allowedOvercount = (long) Math.ceil(Math.E / 2048 * SEARCHES);
+
+        for (String term : exactTop.subList(0, 20)) {
+            Long estimate = hitters.getCandidates().get(term);
+            assertTrue(estimate != null, term + " should be a candidate");
+            assertTrue(estimate >= exact.get(term) && estimate <= exact.get(term) + allowedOvercount,
+                term + " estimated " + estimate + " for " + exact.get(term));
+        }
+        assertEquals(100, hitters.getCandidates().size());
+    }
+
+    @Test
+    void sketchNeverUndercounts() {
+        Map<String, Integer> exact = new HashMap<>();
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (String term : zipfStream(exact)) {
+            sketch.add(term, 1);
+        }
+
+        exact.forEach((term, count) -> assertTrue(sketch.estimate(term) >= count, term));
+        assertEquals(SEARCHES, sketch.getTotal());
+    }
+
+    // Term i is searched with probability proportional to 1/i, in random order
+    private static List<String> zipfStream(Map<String, Integer> exact) {
+        double[] cumulative = new double[DISTINCT_TERMS];
+        double sum = 0;
+        for (int i = 0; i < DISTINCT_TERMS; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        Random random = new Random(42);
+        List<String> stream = new ArrayList<>(SEARCHES);
+        for (int i = 0; i < SEARCHES; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            String term = "term-" + (index < 0 ? -index - 1 : index);
+            stream.add(term);
+            exact.merge(term, 1, Integer::sum);
+        }
+        Collections.shuffle(stream, random);
+        return stream;
+    }
+}
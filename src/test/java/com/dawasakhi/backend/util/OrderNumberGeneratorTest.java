@@ -0,0 +1,109 @@
+package com.dawasakhi.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7);
+
+        // Far more than the 4096 ids per millisecond a node has, so the logical clock has to run ahead
+        long[][] perThread = generate(THREADS, i -> generator);
+
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 1; i < IDS_PER_THREAD; i++) {
+                assertTrue(perThread[t][i] > perThread[t][i - 1], "ids must increase within a thread");
+            }
+            System.arraycopy(perThread[t], 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        assertDistinct(all);
+    }
+
+    @Test
+    void nodesNeverCollide() throws Exception {
+        OrderNumberGenerator[] nodes = {new OrderNumberGenerator(0), new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID)};
+
+        long[][] perThread = generate(2, i -> nodes[i]);
+
+        long[] all = new long[2 * IDS_PER_THREAD];
+        System.arraycopy(perThread[0], 0, all, 0, IDS_PER_THREAD);
+        System.arraycopy(perThread[1], 0, all, IDS_PER_THREAD, IDS_PER_THREAD);
+        assertDistinct(all);
+    }
+
+    @Test
+    void numbersAreTwentyCharactersAndSortLikeTheirIds() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(3);
+        String first = generator.next();
+        String second = generator.next();
+
+        assertEquals(OrderNumberGenerator.LENGTH, first.length());
+        assertTrue(first.matches("DS\\d{18}"), first);
+        assertTrue(second.compareTo(first) > 0);
+        // Largest id the 59-bit layout can produce
+        assertEquals(OrderNumberGenerator.LENGTH, OrderNumberGenerator.format((1L << 59) - 1).length());
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTheNodeBits() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1));
+    }
+
+    private interface GeneratorForThread {
+        OrderNumberGenerator get(int thread);
+    }
+
+    private static long[][] generate(int threads, GeneratorForThread generators) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                OrderNumberGenerator generator = generators.get(t);
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[][] perThread = new long[threads][];
+            for (int t = 0; t < threads; t++) {
+                perThread[t] = futures.get(t).get(60, TimeUnit.SECONDS);
+            }
+            return perThread;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertDistinct(long[] ids) {
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] != ids[i - 1], "duplicate id " + ids[i]);
+        }
+    }
+}